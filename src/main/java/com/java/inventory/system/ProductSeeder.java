@@ -1,78 +1,77 @@
 package com.java.inventory.system;
 
-import com.github.javafaker.Faker;
-import com.java.inventory.system.util.ProductIdGenerator;
+import com.java.inventory.system.service.ProductDatasetGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.sql.*;
-import java.util.Locale;
-
+/**
+ * Fills the product table on startup through {@link ProductDatasetGenerator}.
+ * <p>
+ * By default it keeps the old behaviour, 1000 products into an empty table. For capacity tests run the
+ * {@code seed} profile, or pass the settings on the command line, e.g.
+ * {@code java -jar app.jar --spring.profiles.active=dev,seed --app.seed.rows=10000000 --app.seed.threads=8}.
+ */
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true", matchIfMissing = true)
 public class ProductSeeder implements CommandLineRunner {
 
-    @Value("${DB_URL}")
-    private String url;
-
-    @Value("${DB_USERNAME}")
-    private String user;
+    private final ProductDatasetGenerator generator;
+    private final ConfigurableApplicationContext context;
 
-    @Value("${DB_PASSWORD}")
-    private String password;
-
-    @Override
-    public void run(String... args) throws Exception {
-        log.info("🌱 Checking product table before seeding...");
+    @Value("${app.seed.rows:1000}")
+    private long rows;
 
-        Faker faker = new Faker(new Locale("en"));
+    @Value("${app.seed.threads:4}")
+    private int threads;
 
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+    @Value("${app.seed.batch-size:500}")
+    private int batchSize;
 
-            // ✅ Check if table already has data
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM product")) {
+    @Value("${app.seed.seed:42}")
+    private long seed;
 
-                rs.next();
-                int count = rs.getInt(1);
+    @Value("${app.seed.category-skew:1.0}")
+    private double categorySkew;
 
-                if (count > 0) {
-                    log.warn("⚠️ Product table already has {} rows. Skipping seeding.", count);
-                    return;
-                }
-            }
+    @Value("${app.seed.progress-ms:5000}")
+    private long progressMs;
 
-            // ✅ Proceed with seeding
-            log.info("🌱 Seeding 1000 products into database...");
-            String sql = "INSERT INTO product (id, category, description, item_name, quantity, unit, unit_price) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    @Value("${app.seed.only-if-empty:true}")
+    private boolean onlyIfEmpty;
 
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+    @Value("${app.seed.exit-when-done:false}")
+    private boolean exitWhenDone;
 
-                for (int i = 0; i < 1000; i++) {
-                    ps.setString(1, ProductIdGenerator.generateId());
-                    ps.setString(2, faker.options().option(
-                            "Books", "Movies", "Music", "Games", "Electronics", "Computers",
-                            "Home", "Garden", "Tools", "Grocery", "Health", "Beauty",
-                            "Toys", "Kids", "Baby", "Clothing", "Shoes", "Jewelery",
-                            "Sports", "Outdoors", "Automotive", "Industrial"
-                    ));
-                    ps.setString(3, faker.lorem().sentence());
-                    ps.setString(4, faker.commerce().productName());
-                    ps.setInt(5, faker.number().numberBetween(1, 200));
-                    ps.setString(6, faker.options().option("Piece", "Box", "Kg", "Pack", "Bottle"));
-                    ps.setBigDecimal(7, new BigDecimal(faker.commerce().price(10.0, 2000.0)));
-                    ps.addBatch();
-                }
+    public ProductSeeder(ProductDatasetGenerator generator, ConfigurableApplicationContext context) {
+        this.generator = generator;
+        this.context = context;
+    }
 
-                ps.executeBatch();
-                log.info("✅ Successfully inserted 1000 products!");
-            }
+    @Override
+    public void run(String... args) {
+        long count = generator.countProducts();
+        if (onlyIfEmpty && count > 0) {
+            log.warn("⚠️ Product table already has {} rows. Skipping seeding.", count);
+        } else {
+            log.info("🌱 Seeding {} products into database...", rows);
+            generator.generate(ProductDatasetGenerator.Spec.builder()
+                    .rows(rows)
+                    .threads(threads)
+                    .batchSize(batchSize)
+                    .seed(seed)
+                    .skew(categorySkew)
+                    .progressMs(progressMs)
+                    .build());
+        }
 
-        } catch (SQLException e) {
-            log.error("❌ Error occurred during product seeding", e);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
         }
     }
 }
@@ -2,6 +2,7 @@ package com.java.inventory.system.config;
 
 import com.java.inventory.system.model.User;
 import com.java.inventory.system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,8 +29,9 @@ public class DataInitializer {
         };
     }
 
+    // login and register hash through BoundedPasswordEncoder, which wraps this one
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,82 @@
+package com.java.inventory.system.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+
+import static com.java.inventory.system.constant.InventoryConstant.READ_YOUR_WRITES_CHANNEL;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they changed something, so replication lag never
+ * shows them their own write missing.
+ * <p>
+ * The window is kept per instance, and every write announces the user over Redis pub/sub so the other instances open
+ * it too. The announcement goes out when the write starts, well before the client can send its next request to
+ * another instance, and again when it ends so a long write still gets the full window. If Redis is unavailable the
+ * guarantee only holds on the instance that took the write.
+ */
+@Slf4j
+public class ReadYourWritesInterceptor implements HandlerInterceptor, MessageListener {
+
+    private final Cache<String, Boolean> recentWriters;
+    private final StringRedisTemplate redisTemplate;
+
+    public ReadYourWritesInterceptor(Duration window, StringRedisTemplate redisTemplate) {
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(window).build();
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String user = user(request);
+        if (user != null && !isRead(request)) {
+            markWriter(user);
+        }
+        ReplicaRoutingDataSource.pinToPrimary(user != null && recentWriters.getIfPresent(user) != null);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.pinToPrimary(false);
+        String user = user(request);
+        if (user != null && !isRead(request)) {
+            markWriter(user);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        recentWriters.put(new String(message.getBody(), StandardCharsets.UTF_8), Boolean.TRUE);
+    }
+
+    private void markWriter(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+        try {
+            redisTemplate.convertAndSend(READ_YOUR_WRITES_CHANNEL, user);
+        } catch (RuntimeException e) {
+            log.warn("Unable to announce the write of [{}] to other instances: {}", user, e.getMessage());
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static String user(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal == null ? null : principal.getName();
+    }
+}
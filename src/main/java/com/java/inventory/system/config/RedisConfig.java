@@ -6,12 +6,16 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_INVALIDATION_CHANNEL;
+
 @Configuration
 public class RedisConfig {
 
@@ -34,4 +38,17 @@ public class RedisConfig {
                 );
         return RedisCacheManager.builder(factory).cacheDefaults(config).build();
     }
+
+    @Bean
+    public ChannelTopic productInvalidationTopic() {
+        return new ChannelTopic(PRODUCT_INVALIDATION_CHANNEL);
+    }
+
+    // shared pub/sub container, listeners register themselves on startup
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
 }
@@ -0,0 +1,141 @@
+package com.java.inventory.system.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Picks the data source for read-only transactions: one of the healthy replicas round robin, or the primary when
+ * every replica is down or lagging, or when the current thread is pinned to the primary.
+ * <p>
+ * Used as the read-only data source of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so only {@code @Transactional(readOnly = true)} work ever gets here, see {@link ReplicaDataSourceConfig}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<Integer> healthy = List.of();
+
+    /**
+     * @param lagQuery query returning the replication lag in seconds, {@code null} to use {@code SHOW REPLICA STATUS}
+     *                 on MySQL and assume no lag elsewhere
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagSeconds, String lagQuery) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        checkReplicas();
+    }
+
+    /**
+     * Runs {@code work} with all its reads on the primary, for reads whose result outlives the request (caches).
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.set(previous);
+        }
+    }
+
+    static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<Integer> candidates = healthy;
+        if (Boolean.TRUE.equals(PRIMARY_ONLY.get()) || candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-ms:5000}")
+    public void checkReplicas() {
+        List<Integer> usable = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = lagSeconds(replicas.get(i));
+            if (lag <= maxLagSeconds) {
+                usable.add(i);
+            } else if (healthy.contains(i)) {
+                log.warn("Replica {} taken out of rotation ({}).", i, lag == Long.MAX_VALUE ? "unreachable" : lag + "s behind");
+            }
+        }
+        if (!usable.equals(healthy)) {
+            log.info("Read replicas in rotation: {} of {}.", usable.size(), replicas.size());
+        }
+        healthy = List.copyOf(usable);
+    }
+
+    private long lagSeconds(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (lagQuery != null) {
+                try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                    return rs.next() && rs.getObject(1) != null ? rs.getLong(1) : Long.MAX_VALUE;
+                }
+            }
+            if (!"MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                return connection.isValid(2) ? 0 : Long.MAX_VALUE;
+            }
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return 0; // not replicating at all, e.g. a local copy
+                }
+                // NULL while the replication threads are stopped
+                long lag = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? Long.MAX_VALUE : lag;
+            }
+        } catch (Exception e) {
+            log.debug("Replica health check failed: {}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable && replica != primary) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.java.inventory.system.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.security.BoundedPasswordEncoder;
 import com.java.inventory.system.security.JwtAuthenticationFilter;
 import com.java.inventory.system.security.JwtUtil;
+import com.java.inventory.system.security.RateLimitFilter;
+import com.java.inventory.system.security.RateLimiter;
+import com.java.inventory.system.security.TokenRevocationList;
 import com.java.inventory.system.service.CustomUserDetailsService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,7 +21,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
@@ -37,20 +40,28 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TokenRevocationList revocationList;
+    private final RateLimiter rateLimiter;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
                           JwtUtil jwtUtil,
-                          BCryptPasswordEncoder passwordEncoder) {
+                          BoundedPasswordEncoder passwordEncoder,
+                          TokenRevocationList revocationList,
+                          RateLimiter rateLimiter) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.revocationList = revocationList;
+        this.rateLimiter = rateLimiter;
     }
 
     @Bean
     public AuthenticationManager authenticationManager() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        // rehashes the stored password after a successful login when its BCrypt cost is not the configured one
+        provider.setUserDetailsPasswordService(userDetailsService);
         return new ProviderManager(provider);
     }
 
@@ -74,7 +85,9 @@ public class SecurityConfig {
                         .authenticationEntryPoint(customAuthenticationEntryPoint())  // 401 handler
                         .accessDeniedHandler(customAccessDeniedHandler())            // 403 handler
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, revocationList), UsernamePasswordAuthenticationFilter.class)
+                // after the JWT filter so authenticated clients are limited per user, and before any controller work
+                .addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -131,6 +144,9 @@ public class SecurityConfig {
         ));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        // lets the frontend read ETags and send them back in If-None-Match / If-Match, and see its rate limit
+        config.setExposedHeaders(List.of("ETag", "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset",
+                "Retry-After"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -8,4 +8,19 @@ public class ErrorConstants {
     public static String INVENTORY_MS_ERR_CODE_002 = "002";
     public static String INVENTORY_MS_PRODUCT_EXIST = "The product already exists. Please add a new product" +
             " that is not currently in the system.";
+
+    public static String INVENTORY_MS_ERR_CODE_003 = "003";
+    public static String INVENTORY_MS_INVALID_CURSOR = "The pagination cursor is invalid or has been tampered with.";
+
+    public static String INVENTORY_MS_ERR_CODE_004 = "004";
+    public static String INVENTORY_MS_INVALID_IMPORT_FILE = "The import file is invalid. CSV files need a header row with" +
+            " id,itemName,description,category,unitPrice,quantity,unit.";
+
+    public static String INVENTORY_MS_ERR_CODE_005 = "005";
+    public static String INVENTORY_MS_INSUFFICIENT_STOCK = "Insufficient stock. The adjustment would make the" +
+            " product quantity negative.";
+
+    public static String INVENTORY_MS_ERR_CODE_006 = "006";
+    public static String INVENTORY_MS_PRECONDITION_FAILED = "The product was changed by someone else. Fetch the latest" +
+            " version and try again.";
 }
@@ -5,4 +5,21 @@ public class InventoryConstant {
     public static final long OTP_EXPIRATION_MINUTES = 5;
     // Expiration time for temporary login session
     public static final long TEMP_TOKEN_EXPIRATION_MINUTES = 5;
+
+    // Redis cache name used as the L2 product cache (keys are "product::<id>")
+    public static final String PRODUCT_CACHE = "product";
+    // Redis pub/sub channel used to tell every replica to drop its L1 product entry
+    public static final String PRODUCT_INVALIDATION_CHANNEL = "product:invalidate";
+    // Redis pub/sub channel carrying the category keys whose cached search results are out of date
+    public static final String PRODUCT_SEARCH_INVALIDATION_CHANNEL = "product-search:invalidate";
+    // Redis pub/sub channel carrying the products written and removed on one instance to the other instances' search index
+    public static final String PRODUCT_INDEX_CHANNEL = "product-index:changed";
+    // Redis pub/sub channel carrying the product rows written and removed on one instance to the other instances' stats
+    public static final String PRODUCT_STATS_CHANNEL = "product-stats:changed";
+    // Redis pub/sub channel carrying usernames whose cached user row is out of date
+    public static final String USER_INVALIDATION_CHANNEL = "user:invalidate";
+    // Redis pub/sub channel carrying usernames that just wrote, so every instance keeps their reads on the primary
+    public static final String READ_YOUR_WRITES_CHANNEL = "read-your-writes:writer";
+    // Redis pub/sub channel announcing revoked JWTs ("t:<jti>") and users ("u:<username>") to every instance
+    public static final String TOKEN_REVOCATION_CHANNEL = "jwt:revoked";
 }
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -39,4 +40,15 @@ public class AuthenticationController {
     public ResponseEntity<?> verifyOtp(@RequestBody OtpVerificationRequest request) {
         return otpService.validateOtp(request);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest servletRequest) {
+        return authService.logout(servletRequest);
+    }
+
+    @PostMapping("/revoke/{username}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeUser(@PathVariable String username) {
+        return authService.revokeUser(username);
+    }
 }
@@ -2,9 +2,18 @@ package com.java.inventory.system.controller;
 
 import com.java.inventory.system.apidocs.ApiDocAllErrorsResponse;
 import com.java.inventory.system.apidocs.ApiDocSuccessResponse;
+import com.java.inventory.system.dto.ArchivePage;
+import com.java.inventory.system.dto.BulkDeleteRequest;
+import com.java.inventory.system.dto.BulkUpdateRequest;
+import com.java.inventory.system.dto.InventoryStats;
+import com.java.inventory.system.dto.PickListRequest;
+import com.java.inventory.system.dto.ProductImportReport;
+import com.java.inventory.system.dto.ProductPage;
 import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.dto.StockAdjustmentRequest;
 import com.java.inventory.system.exception.ProductSvcException;
 import com.java.inventory.system.model.Product;
+import com.java.inventory.system.service.ProductExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
@@ -12,41 +21,121 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 public interface ProductApi {
 
-    @Operation(description = "Get All Products", tags = {"All Products Inquiry"})
+    @Operation(description = "Get All Products. Pass `after` (empty for the first page, then the returned " +
+            "`nextCursor`) to switch to keyset pagination ordered by item name", tags = {"All Products Inquiry"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
-    ResponseEntity<Map<String, Object>> getAllProducts(@PageableDefault(size = 10, sort = "itemName") Pageable pageable);
+    ResponseEntity<ProductPage> getAllProducts(@RequestParam(required = false) String after,
+                                                       @PageableDefault(size = 10, sort = "itemName") Pageable pageable);
 
-    @Operation(description = "Get Product", tags = {"Products Inquiry"})
+    @Operation(description = "Get Product. Supports the same `after` cursor mode as Get All Products. " +
+            "`fuzzy=true` ranks name/description matches by similarity and tolerates typos. " +
+            "`facets=true` adds product counts per category and unit for the item name filter", tags = {"Products Inquiry"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
-    ResponseEntity<Map<String, Object>> getProductsByNameAndCategory(@RequestParam(required = false) String itemName,
+    ResponseEntity<ProductPage> getProductsByNameAndCategory(@RequestParam(required = false) String itemName,
                                                                @RequestParam(required = false) String category,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                               @RequestParam(defaultValue = "false") boolean facets,
                                                                @PageableDefault(size = 5, sort = "itemName") Pageable pageable);
 
-    @Operation(description = "Get Product", tags = {"Products Inquiry"})
+    @Operation(description = "Get Product. Returns an ETag, send it back in `If-None-Match` to get a 304 " +
+            "when the product is unchanged", tags = {"Products Inquiry"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
     ResponseEntity<Product> getProductById(@PathVariable String id);
 
-    @Operation(description = "Create new product", tags = {"Add Product"})
+    @Operation(description = "Export the catalog as CSV or NDJSON, streamed from the database, " +
+            "optionally filtered by category and gzip-compressed", tags = {"All Products Inquiry"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "CSV") ProductExportService.Format format,
+                                                         @RequestParam(required = false) String category,
+                                                         @RequestParam(defaultValue = "false") boolean gzip);
+
+    @Operation(description = "Search deleted products that were moved to the archive, " +
+            "with the same name and category filters as Get Product", tags = {"Products Inquiry"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<ArchivePage> getArchivedProducts(@RequestParam(required = false) String itemName,
+                                                    @RequestParam(required = false) String category,
+                                                    @PageableDefault(size = 5, sort = "itemName") Pageable pageable);
+
+    @Operation(description = "Stock valuation: product count, total quantity, total value (unit price x quantity) " +
+            "and price range per category and for the whole catalog", tags = {"All Products Inquiry"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<InventoryStats> getStats();
+
+    @Operation(description = "Compare the incrementally maintained stats with a full recompute from the database",
+            tags = {"All Products Inquiry"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Map<String, Object>> reconcileStats();
+
+    @Operation(description = "Product cache and search result cache hit/miss counters", tags = {"Products Inquiry"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Map<String, Object>> getCacheStats();
+
+    @Operation(description = "Create new product. Leave `id` empty to have a time-ordered id generated", tags = {"Add Product"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
     ResponseEntity<Product> createProduct(@Valid @RequestBody ProductRequest request) throws ProductSvcException;
 
-    @Operation(description = "Update product", tags = {"Update product"})
+    @Operation(description = "Bulk import products from an NDJSON or CSV body (streamed, upserted by id, " +
+            "rows without id get a generated one). " +
+            "Returns a per-row error report and the achieved rows/sec", tags = {"Add Product"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<ProductImportReport> importProducts(@RequestHeader String contentType, InputStream body) throws IOException;
+
+    @Operation(description = "Update product. With `If-Match` set to the ETag from Get Product the update is " +
+            "rejected with 412 if someone else changed the product in the meantime", tags = {"Update product"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Product> updateProduct(@PathVariable String id, @RequestHeader String ifMatch,
+                                          @Valid @RequestBody ProductRequest request) throws ProductSvcException;
+
+    @Operation(description = "Update price, quantity, unit and/or category of many products at once, " +
+            "selected by ids or by category", tags = {"Update product"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Map<String, Object>> bulkUpdateProducts(@Valid @RequestBody BulkUpdateRequest request);
+
+    @Operation(description = "Add to or take from the stock of a product, e.g. delta -3 for a pick. " +
+            "Fails when the quantity would go below zero. In write-behind mode the change is written to the database " +
+            "within a second, reads already include it", tags = {"Update product"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Map<String, Object>> adjustStock(@PathVariable String id, @Valid @RequestBody StockAdjustmentRequest request);
+
+    @Operation(description = "Apply a pick list of stock deltas in one transaction, " +
+            "either every line is applied or none", tags = {"Update product"})
+    @ApiDocSuccessResponse
+    @ApiDocAllErrorsResponse
+    ResponseEntity<Map<String, Object>> adjustStock(@Valid @RequestBody PickListRequest request);
+
+    @Operation(description = "Delete many products at once, selected by ids or by category. " +
+            "Deleted products are moved to the archive after the retention period", tags = {"delete product"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
-    ResponseEntity<Product> updateProduct(@PathVariable String id, @Valid @RequestBody ProductRequest request) throws ProductSvcException;
+    ResponseEntity<Map<String, Object>> bulkDeleteProducts(@Valid @RequestBody BulkDeleteRequest request);
 
-    @Operation(description = "Delete product", tags = {"delete product"})
+    @Operation(description = "Delete product. Honours `If-Match` like Update product. " +
+            "The product is moved to the archive after the retention period", tags = {"delete product"})
     @ApiDocSuccessResponse
     @ApiDocAllErrorsResponse
-    ResponseEntity<Map<String, String>> deleteProduct(@PathVariable String id);
+    ResponseEntity<Map<String, String>> deleteProduct(@PathVariable String id, @RequestHeader String ifMatch);
 }
\ No newline at end of file
@@ -1,22 +1,44 @@
 package com.java.inventory.system.controller;
 
+import com.java.inventory.system.dto.ArchivePage;
+import com.java.inventory.system.dto.BulkDeleteRequest;
+import com.java.inventory.system.dto.BulkUpdateRequest;
+import com.java.inventory.system.dto.InventoryStats;
+import com.java.inventory.system.dto.PickListRequest;
+import com.java.inventory.system.dto.ProductImportReport;
+import com.java.inventory.system.dto.ProductPage;
 import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.dto.StockAdjustmentRequest;
 import com.java.inventory.system.exception.ProductSvcException;
 import com.java.inventory.system.model.Product;
+import com.java.inventory.system.service.ProductArchiveService;
+import com.java.inventory.system.service.ProductBulkService;
+import com.java.inventory.system.service.ProductExportService;
+import com.java.inventory.system.service.ProductImportService;
 import com.java.inventory.system.service.ProductService;
+import com.java.inventory.system.service.ProductStatsService;
+import com.java.inventory.system.service.ProductStockService;
+import com.java.inventory.system.util.ETagUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @CrossOrigin
 @RestController
@@ -26,45 +48,157 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class ProductController implements ProductApi {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductBulkService productBulkService;
+    private final ProductStockService productStockService;
+    private final ProductArchiveService productArchiveService;
+    private final ProductStatsService productStatsService;
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllProducts(@PageableDefault(size = 5) Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+    public ResponseEntity<ProductPage> getAllProducts(
+            @RequestParam(required = false) String after,
+            @PageableDefault(size = 5) Pageable pageable) {
+        ProductPage page = after != null
+                ? productService.getAllProductsAfter(after, pageable.getPageSize())
+                : productService.getAllProducts(pageable);
+        return withETag(page);
     }
 
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> getProductsByNameAndCategory(
+    public ResponseEntity<ProductPage> getProductsByNameAndCategory(
             @RequestParam(required = false) String itemName,
             @RequestParam(required = false) String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "false") boolean facets,
             @PageableDefault(size = 5, sort = "itemName") Pageable pageable) {
-        return ResponseEntity.ok(productService.findByItemNameAndCategory(itemName, category, pageable));
+        ProductPage page;
+        if (fuzzy) {
+            page = productService.fuzzySearch(itemName, category, pageable);
+        } else if (after != null) {
+            page = productService.findByItemNameAndCategoryAfter(itemName, category, after, pageable.getPageSize());
+        } else {
+            page = productService.findByItemNameAndCategory(itemName, category, pageable);
+        }
+        if (facets) {
+            page = page.withFacets(productService.getFacets(itemName));
+        }
+        return withETag(page);
+    }
+
+    // A GET whose If-None-Match matches the ETag is answered with 304 by Spring before the body is serialized.
+    private static ResponseEntity<ProductPage> withETag(ProductPage page) {
+        return ResponseEntity.ok().eTag(ETagUtils.of(page)).body(page);
+    }
+
+    private static ResponseEntity<Product> withETag(Product product) {
+        return ResponseEntity.ok().eTag(ETagUtils.of(product)).body(product);
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/export", produces = {"text/csv", APPLICATION_NDJSON_VALUE, "application/gzip"})
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "CSV") ProductExportService.Format format,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String fileName = "products." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == ProductExportService.Format.CSV ? ProductImportService.TEXT_CSV : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> productExportService.export(format, category, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/archive")
+    public ResponseEntity<ArchivePage> getArchivedProducts(
+            @RequestParam(required = false) String itemName,
+            @RequestParam(required = false) String category,
+            @PageableDefault(size = 5, sort = "itemName") Pageable pageable) {
+        return ResponseEntity.ok(productArchiveService.findArchived(itemName, category, pageable));
+    }
+
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<InventoryStats> getStats() {
+        return ResponseEntity.ok(productStatsService.getStats());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileStats() {
+        return ResponseEntity.ok(productStatsService.reconcile());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
     }
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping(value = "/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable String id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+        return withETag(productService.getProductById(id));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping(consumes = APPLICATION_JSON_VALUE)
     public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductRequest request) throws ProductSvcException {
-        return ResponseEntity.ok(productService.createProduct(request));
+        return withETag(productService.createProduct(request));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ProductImportReport> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(MediaType.parseMediaType(contentType), body));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk-update", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> bulkUpdateProducts(@Valid @RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.ok(productBulkService.bulkUpdate(request));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk-delete", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> bulkDeleteProducts(@Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(productBulkService.bulkDelete(request));
+    }
+
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @PostMapping(value = "/{id}/stock", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> adjustStock(@PathVariable String id,
+                                                           @Valid @RequestBody StockAdjustmentRequest request) {
+        return ResponseEntity.ok(productStockService.adjustStock(id, request.getDelta()));
+    }
+
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @PostMapping(value = "/stock", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> adjustStock(@Valid @RequestBody PickListRequest request) {
+        return ResponseEntity.ok(productStockService.adjustStock(request));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping(value = "/{id}", consumes = APPLICATION_JSON_VALUE)
-    public ResponseEntity<Product> updateProduct(@PathVariable String id, @Valid @RequestBody ProductRequest request)
-            throws ProductSvcException {
-        return ResponseEntity.ok(productService.updateProduct(id, request));
+    public ResponseEntity<Product> updateProduct(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @Valid @RequestBody ProductRequest request) throws ProductSvcException {
+        return withETag(productService.updateProduct(id, request, ifMatch));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping(value = "/{id}")
-    public ResponseEntity<Map<String, String>> deleteProduct(@PathVariable String id) {
-        return productService.deleteProduct(id) ? ResponseEntity.ok(Map.of("message", "Product deleted successfully.")) :
+    public ResponseEntity<Map<String, String>> deleteProduct(@PathVariable String id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.deleteProduct(id, ifMatch) ? ResponseEntity.ok(Map.of("message", "Product deleted successfully.")) :
                 ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Product with id " + id + " not found."));
     }
 }
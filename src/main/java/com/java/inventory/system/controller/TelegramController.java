@@ -1,6 +1,7 @@
 package com.java.inventory.system.controller;
 
 import com.java.inventory.system.constant.InventoryConstant;
+import com.java.inventory.system.service.AuthSessionStore;
 import com.java.inventory.system.service.CustomUserDetailsService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ public class TelegramController {
 
     private final StringRedisTemplate redisTemplate;
     private final CustomUserDetailsService userService; // For getting chatId
+    private final AuthSessionStore authSessionStore;
 
 
     @GetMapping("/generate-link-code")
@@ -47,7 +49,7 @@ public class TelegramController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid tempToken");
         }
         String tempToken = authHeader.substring(7); // Remove "Bearer "
-        String userId = redisTemplate.opsForValue().get("TEMP_LOGIN:" + tempToken);
+        String userId = authSessionStore.getUsername(tempToken);
         if (userId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired tempToken");
         }
@@ -0,0 +1,19 @@
+package com.java.inventory.system.dto;
+
+import com.java.inventory.system.model.ArchivedProduct;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Response body of the archive search, paged like the offset mode of {@link ProductPage}.
+ */
+public record ArchivePage(List<ArchivedProduct> content,
+                          int currentPage,
+                          long totalItems,
+                          int totalPages) {
+
+    public static ArchivePage of(Page<ArchivedProduct> page) {
+        return new ArchivePage(page.getContent(), page.getNumber(), page.getTotalElements(), page.getTotalPages());
+    }
+}
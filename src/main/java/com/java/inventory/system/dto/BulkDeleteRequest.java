@@ -0,0 +1,29 @@
+package com.java.inventory.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    // either a list of product ids...
+    private List<String> ids;
+
+    // ...or a whole category
+    private String category;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or category, not both")
+    public boolean isSingleFilter() {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        return hasIds != StringUtils.isNotBlank(category);
+    }
+}
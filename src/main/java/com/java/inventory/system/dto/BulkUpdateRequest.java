@@ -0,0 +1,46 @@
+package com.java.inventory.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    // rows to change: either a list of product ids or every product of a category
+    private List<String> ids;
+    private String category;
+
+    // new values, null fields are left untouched
+    @Min(value = 0, message = "Unit price must be at least 0")
+    private BigDecimal unitPrice;
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    private String unit;
+
+    private String newCategory;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or category, not both")
+    public boolean isSingleFilter() {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        return hasIds != StringUtils.isNotBlank(category);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one of unitPrice, quantity, unit or newCategory is required")
+    public boolean isAnyChange() {
+        return unitPrice != null || quantity != null || StringUtils.isNotBlank(unit) || StringUtils.isNotBlank(newCategory);
+    }
+}
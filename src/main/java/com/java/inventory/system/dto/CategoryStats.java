@@ -0,0 +1,18 @@
+package com.java.inventory.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock figures of one category, or of the whole catalog when {@code category} is null.
+ * Also the row type of the grouped recompute query used for reconciliation.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CategoryStats(String category,
+                            long count,
+                            long totalQuantity,
+                            BigDecimal totalValue,
+                            BigDecimal minPrice,
+                            BigDecimal maxPrice) {
+}
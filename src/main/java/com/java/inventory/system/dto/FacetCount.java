@@ -0,0 +1,7 @@
+package com.java.inventory.system.dto;
+
+/**
+ * One row of the grouped facet query: how many products share a (category, unit) pair.
+ */
+public record FacetCount(String category, String unit, long count) {
+}
@@ -0,0 +1,12 @@
+package com.java.inventory.system.dto;
+
+import java.util.List;
+
+/**
+ * Response body of the stats endpoint. {@code incremental} is false while the in-memory totals are still being
+ * built, the figures were then computed by a grouped query instead.
+ */
+public record InventoryStats(boolean incremental,
+                             CategoryStats total,
+                             List<CategoryStats> categories) {
+}
@@ -0,0 +1,28 @@
+package com.java.inventory.system.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Product counts per category and per unit, keys sorted for display in the search sidebar.
+ */
+public record ProductFacets(Map<String, Long> category, Map<String, Long> unit) {
+
+    /**
+     * Folds the (category, unit) groups of the facet query into the two facets.
+     */
+    public static ProductFacets of(List<FacetCount> groups) {
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> units = new TreeMap<>();
+        for (FacetCount group : groups) {
+            if (group.category() != null) {
+                categories.merge(group.category(), group.count(), Long::sum);
+            }
+            if (group.unit() != null) {
+                units.merge(group.unit(), group.count(), Long::sum);
+            }
+        }
+        return new ProductFacets(categories, units);
+    }
+}
@@ -0,0 +1,36 @@
+package com.java.inventory.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Response body of the product list endpoints.
+ * <p>
+ * Offset pages fill currentPage/totalItems/totalPages, cursor pages fill size/hasNext/nextCursor,
+ * the unused fields are left out of the JSON so both keep their previous shape. facets is only set when requested.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductPage(List<ProductView> content,
+                          Integer currentPage,
+                          Long totalItems,
+                          Integer totalPages,
+                          Integer size,
+                          Boolean hasNext,
+                          String nextCursor,
+                          ProductFacets facets) {
+
+    public static ProductPage of(Page<ProductView> page) {
+        return new ProductPage(page.getContent(), page.getNumber(), page.getTotalElements(), page.getTotalPages(),
+                null, null, null, null);
+    }
+
+    public static ProductPage ofCursor(List<ProductView> content, boolean hasNext, String nextCursor) {
+        return new ProductPage(content, null, null, null, content.size(), hasNext, nextCursor, null);
+    }
+
+    public ProductPage withFacets(ProductFacets facets) {
+        return new ProductPage(content, currentPage, totalItems, totalPages, size, hasNext, nextCursor, facets);
+    }
+}
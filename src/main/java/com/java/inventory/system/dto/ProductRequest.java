@@ -14,7 +14,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class ProductRequest {
 
-    @NotBlank(message = "id is required")
+    // optional on create and import, a time-ordered id is generated when blank (see ProductIdGenerator)
     private String id;
 
     @NotBlank(message = "Item name is required")
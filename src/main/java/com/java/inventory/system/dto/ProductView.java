@@ -0,0 +1,29 @@
+package com.java.inventory.system.dto;
+
+import com.java.inventory.system.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only product row for list responses, selected straight from the database with a constructor expression
+ * so no managed entity (and no dirty-checking snapshot) is created. Serializes to the same JSON as {@link Product}.
+ */
+public record ProductView(String id,
+                          String itemName,
+                          String description,
+                          String category,
+                          BigDecimal unitPrice,
+                          int quantity,
+                          String unit,
+                          long version) {
+
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getItemName(), product.getDescription(),
+                product.getCategory(), product.getUnitPrice(), product.getQuantity(), product.getUnit(),
+                product.getVersion());
+    }
+
+    public ProductView withQuantity(int quantity) {
+        return new ProductView(id, itemName, description, category, unitPrice, quantity, unit, version);
+    }
+}
@@ -0,0 +1,16 @@
+package com.java.inventory.system.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+
+    // signed change, e.g. -3 for a pick or 50 for a delivery
+    @NotNull(message = "delta is required")
+    private Integer delta;
+}
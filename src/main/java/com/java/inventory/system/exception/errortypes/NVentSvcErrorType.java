@@ -18,12 +18,24 @@ public enum NVentSvcErrorType implements ErrorType {
             INVENTORY_MS_NO_PRODUCT_FOUND, BAD_REQUEST),
     ERR_INVENTORY_MS_PRODUCT_EXIST(INVENTORY_MS_ERR_CODE_002,
             INVENTORY_MS_PRODUCT_EXIST, BAD_REQUEST),
+    ERR_INVENTORY_MS_INVALID_CURSOR(INVENTORY_MS_ERR_CODE_003,
+            INVENTORY_MS_INVALID_CURSOR, BAD_REQUEST),
+    ERR_INVENTORY_MS_INVALID_IMPORT_FILE(INVENTORY_MS_ERR_CODE_004,
+            INVENTORY_MS_INVALID_IMPORT_FILE, BAD_REQUEST),
+    ERR_INVENTORY_MS_INSUFFICIENT_STOCK(INVENTORY_MS_ERR_CODE_005,
+            INVENTORY_MS_INSUFFICIENT_STOCK, CONFLICT),
+    ERR_INVENTORY_MS_PRECONDITION_FAILED(INVENTORY_MS_ERR_CODE_006,
+            INVENTORY_MS_PRECONDITION_FAILED, PRECONDITION_FAILED),
     ERR_CLIENT_MAXIMUM_ATTEMPT("429",
             "Maximum resend attempts reached. Please try again in %d minutes and %d seconds.", TOO_MANY_REQUESTS),
     ERR_CLIENT_INVALID_CREDENTIALS("401",
             "Invalid username or password.", UNAUTHORIZED),
     ERR_CLIENT_USER_NOT_FOUND("400",
             "User not found.", BAD_REQUEST),
+    ERR_CLIENT_TOO_MANY_LOGINS("429",
+            "Too many logins are being processed right now. Please try again in a few seconds.", TOO_MANY_REQUESTS),
+    ERR_SERVICE_LOGIN_UNAVAILABLE("503",
+            "Login is temporarily unavailable. Please try again in a few seconds.", SERVICE_UNAVAILABLE),
     INTERNAL_SERVER_ERR("500",
             "An unexpected error occurred", INTERNAL_SERVER_ERROR),
     ERR_CLIENT_CREDENTIALS_EXISTS("409",
@@ -0,0 +1,50 @@
+package com.java.inventory.system.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A deleted product moved out of the live table by ProductArchiveService. Rows are only ever inserted by the archiver.
+ */
+@Entity
+@Immutable
+@Table(name = "product_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedProduct {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long archiveId;
+
+    private String id;
+    private String itemName;
+    private String description;
+    private String category;
+    private BigDecimal unitPrice;
+    private int quantity;
+    private String unit;
+    private long version;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+
+    @JsonIgnore
+    private String itemNameKey;
+
+    @JsonIgnore
+    private String categoryKey;
+}
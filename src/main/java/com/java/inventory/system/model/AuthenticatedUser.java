@@ -0,0 +1,22 @@
+package com.java.inventory.system.model;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * The principal built by {@code CustomUserDetailsService}, carrying the contact details the login response needs so
+ * the user does not have to be read again after authentication.
+ */
+@Getter
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final String email;
+
+    public AuthenticatedUser(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                             String email) {
+        super(username, password, authorities);
+        this.email = email;
+    }
+}
@@ -1,17 +1,29 @@
 package com.java.inventory.system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
+// table and indexes are created by the Flyway migrations in db/migration
 @Entity
+// soft-deleted rows wait in the table for ProductArchiveService, no query of the application may see them
+@SQLRestriction("deleted_at IS NULL")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor // ✅ fixes the error
 @AllArgsConstructor
 public class Product {
@@ -23,4 +35,38 @@ public class Product {
     private BigDecimal unitPrice;
     private int quantity;
     private String unit;
+
+    // bumped on every write, exposed to clients as the ETag. The default lets existing rows and raw inserts start at 0.
+    // null until persisted, which is how save() tells a new product from an existing one without a SELECT
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // normalized copies of itemName and category backing the unique name index and the category index
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String itemNameKey;
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String categoryKey;
+
+    // only ever set by the soft-delete statements, always null on a loaded entity
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateKeys() {
+        itemNameKey = key(itemName);
+        categoryKey = key(category);
+    }
+
+    /**
+     * The normalized form stored in the key columns, use it for every lookup against them.
+     */
+    public static String key(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,26 @@
+package com.java.inventory.system.repository;
+
+import com.java.inventory.system.model.ArchivedProduct;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+
+    // Same filters as ProductRepository#findByItemNameAndCategory, against the archive's own key columns.
+    @Query("""
+                SELECT a FROM ArchivedProduct a
+                WHERE
+                    (:itemName IS NULL OR :itemName = '' OR a.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%'))
+                AND
+                    (:category IS NULL OR :category = '' OR a.categoryKey = LOWER(TRIM(:category)))
+            """)
+    Page<ArchivedProduct> findByItemNameAndCategory(
+            @Param("itemName") String itemName,
+            @Param("category") String category,
+            Pageable pageable);
+}
@@ -1,15 +1,30 @@
 package com.java.inventory.system.repository;
 
+import com.java.inventory.system.dto.CategoryStats;
+import com.java.inventory.system.dto.FacetCount;
+import com.java.inventory.system.dto.ProductView;
 import com.java.inventory.system.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -22,20 +37,189 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     void deleteById(String id);
 
-    Optional<Product> findByItemName(String productName);
+    // The category and name filters below compare against the normalized key columns (see V3 migration),
+    // so the category filter is an index lookup instead of LOWER() over every row.
+
+    // Name uniqueness check served by uk_product_item_name_key, pass Product.key(name).
+    Optional<Product> findByItemNameKey(String itemNameKey);
 
-    @Query("SELECT p FROM Product p WHERE LOWER(p.itemName) LIKE LOWER(CONCAT('%', :itemName, '%'))")
+    @Query("SELECT p FROM Product p WHERE p.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%')")
     List<Product> findByItemNameLike(@Param("itemName") String itemName);
 
-    @Query("""
-                SELECT p FROM Product p
+    // List endpoints select into ProductView so no managed entities are created.
+    @Query(value = """
+                SELECT new com.java.inventory.system.dto.ProductView(
+                    p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+                FROM Product p
+            """,
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductView> findAllViews(Pageable pageable);
+
+    @Query(value = """
+                SELECT new com.java.inventory.system.dto.ProductView(
+                    p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+                FROM Product p
+                WHERE 
+                    (:itemName IS NULL OR :itemName = '' OR p.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%'))
+                AND 
+                    (:category IS NULL OR :category = '' OR p.categoryKey = LOWER(TRIM(:category)))
+            """,
+            countQuery = """
+                SELECT COUNT(p) FROM Product p
                 WHERE 
-                    (:itemName IS NULL OR :itemName = '' OR LOWER(p.itemName) LIKE LOWER(CONCAT('%', :itemName, '%')))
+                    (:itemName IS NULL OR :itemName = '' OR p.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%'))
                 AND 
-                    (:category IS NULL OR :category = '' OR LOWER(p.category) = LOWER(:category))
+                    (:category IS NULL OR :category = '' OR p.categoryKey = LOWER(TRIM(:category)))
             """)
-    Page<Product> findByItemNameAndCategory(
+    Page<ProductView> findByItemNameAndCategory(
             @Param("itemName") String itemName,
             @Param("category") String category,
             Pageable pageable);
+
+    // Facet counts for the search sidebar, one grouped scan instead of a search per category.
+    @Query("""
+                SELECT new com.java.inventory.system.dto.FacetCount(p.category, p.unit, COUNT(p))
+                FROM Product p
+                WHERE (:itemName IS NULL OR :itemName = '' OR p.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%'))
+                GROUP BY p.category, p.unit
+            """)
+    List<FacetCount> countByCategoryAndUnit(@Param("itemName") String itemName);
+
+    // Keyset (seek) pagination ordered by (itemName, id), served by idx_product_item_name_id.
+    // The caller fetches limit + 1 rows to know whether another page exists.
+    @Query("""
+                SELECT new com.java.inventory.system.dto.ProductView(
+                    p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+                FROM Product p
+                WHERE p.itemName > :lastItemName
+                   OR (p.itemName = :lastItemName AND p.id > :lastId)
+                ORDER BY p.itemName, p.id
+            """)
+    List<ProductView> findPageAfter(
+            @Param("lastItemName") String lastItemName,
+            @Param("lastId") String lastId,
+            Limit limit);
+
+    @Query("""
+                SELECT new com.java.inventory.system.dto.ProductView(
+                    p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+                FROM Product p
+                WHERE 
+                    (:itemName IS NULL OR :itemName = '' OR p.itemNameKey LIKE CONCAT('%', LOWER(:itemName), '%'))
+                AND 
+                    (:category IS NULL OR :category = '' OR p.categoryKey = LOWER(TRIM(:category)))
+                AND 
+                    (p.itemName > :lastItemName OR (p.itemName = :lastItemName AND p.id > :lastId))
+                ORDER BY p.itemName, p.id
+            """)
+    List<ProductView> findByItemNameAndCategoryAfter(
+            @Param("itemName") String itemName,
+            @Param("category") String category,
+            @Param("lastItemName") String lastItemName,
+            @Param("lastId") String lastId,
+            Limit limit);
+
+    // Full table scan for index builds and exports. Must be consumed inside a (read-only) transaction and closed.
+    // MySQL only honours the fetch size when the JDBC url has useCursorFetch=true, otherwise it buffers the result.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p")
+    Stream<Product> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Product p WHERE p.categoryKey = LOWER(TRIM(:category))")
+    Stream<Product> streamByCategory(@Param("category") String category);
+
+    // Partitions of the parallel stats scan, null when products without a category exist.
+    @Query("SELECT DISTINCT p.categoryKey FROM Product p")
+    List<String> findCategoryKeys();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+                SELECT new com.java.inventory.system.dto.ProductView(
+                    p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+                FROM Product p
+                WHERE p.categoryKey = :categoryKey OR (:categoryKey IS NULL AND p.categoryKey IS NULL)
+            """)
+    Stream<ProductView> streamViewsByCategoryKey(@Param("categoryKey") String categoryKey);
+
+    // Full recompute of the figures ProductStatsService keeps incrementally, one row per category key.
+    @Query("""
+                SELECT new com.java.inventory.system.dto.CategoryStats(
+                    MIN(p.category), COUNT(p), SUM(p.quantity), SUM(p.unitPrice * p.quantity),
+                    MIN(p.unitPrice), MAX(p.unitPrice))
+                FROM Product p
+                GROUP BY p.categoryKey
+            """)
+    List<CategoryStats> computeCategoryStats();
+
+    List<Product> findByIdIn(Collection<String> ids);
+
+    // Walks a category by primary key so bulk operations can work through it chunk by chunk.
+    @Query("""
+                SELECT p.id FROM Product p
+                WHERE p.categoryKey = LOWER(TRIM(:category)) AND p.id > :afterId
+                ORDER BY p.id
+            """)
+    List<String> findIdsByCategoryAfter(
+            @Param("category") String category,
+            @Param("afterId") String afterId,
+            Limit limit);
+
+    // Deletes are soft: the row keeps its data for ProductArchiveService and drops out of every query through
+    // @SQLRestriction. The name key is cleared so the name can be given to a new product right away.
+    @Modifying
+    @Query("""
+                UPDATE Product p SET p.deletedAt = :deletedAt, p.itemNameKey = NULL, p.version = p.version + 1
+                WHERE p.id IN :ids AND p.deletedAt IS NULL
+            """)
+    int softDeleteByIds(@Param("ids") Collection<String> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Conditional delete for If-Match, zero rows when someone else changed the product first.
+    @Modifying
+    @Query("""
+                UPDATE Product p SET p.deletedAt = :deletedAt, p.itemNameKey = NULL, p.version = p.version + 1
+                WHERE p.id = :id AND p.version = :version AND p.deletedAt IS NULL
+            """)
+    int softDeleteByIdAndVersion(@Param("id") String id, @Param("version") long version,
+                                 @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Null arguments leave the column unchanged.
+    @Modifying
+    @Query("""
+                UPDATE Product p SET
+                    p.unitPrice = COALESCE(:unitPrice, p.unitPrice),
+                    p.quantity = COALESCE(:quantity, p.quantity),
+                    p.unit = COALESCE(:unit, p.unit),
+                    p.category = COALESCE(:category, p.category),
+                    p.categoryKey = COALESCE(LOWER(TRIM(:category)), p.categoryKey),
+                    p.version = p.version + 1
+                WHERE p.id IN :ids
+            """)
+    int bulkUpdate(
+            @Param("ids") Collection<String> ids,
+            @Param("unitPrice") BigDecimal unitPrice,
+            @Param("quantity") Integer quantity,
+            @Param("unit") String unit,
+            @Param("category") String category);
+
+    // In-place delta guarded against going negative. Concurrent adjustments queue on the row lock
+    // instead of overwriting each other, zero rows means the product is missing or the guard rejected it.
+    @Modifying
+    @Query("""
+                UPDATE Product p SET p.quantity = p.quantity + :delta, p.version = p.version + 1
+                WHERE p.id = :id AND p.quantity + :delta >= 0
+            """)
+    int adjustQuantity(@Param("id") String id, @Param("delta") int delta);
 }
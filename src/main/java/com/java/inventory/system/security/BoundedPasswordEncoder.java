@@ -0,0 +1,125 @@
+package com.java.inventory.system.security;
+
+import com.java.inventory.system.exception.BaseException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_CLIENT_TOO_MANY_LOGINS;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_SERVICE_LOGIN_UNAVAILABLE;
+
+/**
+ * BCrypt hashing and verification on a small pool of its own.
+ * <p>
+ * A BCrypt check burns tens of milliseconds of CPU. Run on the request thread, a burst of logins could occupy every
+ * Tomcat worker and stall the catalog. Here at most {@code app.auth.hash.threads} hashes run at once and at most
+ * {@code app.auth.hash.queue-capacity} wait; anything beyond that is refused right away with 429, and a hash that does
+ * not finish within {@code app.auth.hash.timeout-ms} gives 503. So no more than threads + queue request threads are
+ * ever tied up by password work.
+ * <p>
+ * {@link #upgradeEncoding(String)} reports every hash whose cost differs from {@code app.auth.bcrypt.strength}, so
+ * the authentication provider rehashes it after the next successful login, whether the work factor was raised or
+ * lowered.
+ */
+@Slf4j
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+  private final PasswordEncoder delegate;
+  private final int strength;
+  private final long timeoutMs;
+  private final ThreadPoolExecutor pool;
+
+  @Autowired
+  public BoundedPasswordEncoder(BCryptPasswordEncoder delegate,
+                                @Value("${app.auth.bcrypt.strength:10}") int strength,
+                                @Value("${app.auth.hash.threads:0}") int threads,
+                                @Value("${app.auth.hash.queue-capacity:16}") int queueCapacity,
+                                @Value("${app.auth.hash.timeout-ms:5000}") long timeoutMs) {
+    this((PasswordEncoder) delegate, strength, threads, queueCapacity, timeoutMs);
+  }
+
+  BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, long timeoutMs) {
+    this.delegate = delegate;
+    this.strength = strength;
+    this.timeoutMs = timeoutMs;
+    // 0 means one per core, more threads than cores only makes each hash slower
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger counter = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+    // the rehash runs on the pool too, under load it waits for a later login instead of failing this one
+    return matcher.find() && Integer.parseInt(matcher.group(1)) != strength && pool.getQueue().isEmpty();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private <T> T run(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = pool.submit(task);
+    } catch (RejectedExecutionException e) {
+      throw new BaseException(ERR_CLIENT_TOO_MANY_LOGINS);
+    }
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      log.warn("Password hash did not finish within {} ms, {} queued", timeoutMs, pool.getQueue().size());
+      throw new BaseException(ERR_SERVICE_LOGIN_UNAVAILABLE);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new BaseException(ERR_SERVICE_LOGIN_UNAVAILABLE);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
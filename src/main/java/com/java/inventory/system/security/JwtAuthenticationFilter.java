@@ -6,20 +6,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtUtil jwtUtil;
+  private final TokenRevocationList revocationList;
 
-  public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+  public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationList revocationList) {
     this.jwtUtil = jwtUtil;
+    this.revocationList = revocationList;
   }
 
   @Override
@@ -28,16 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
     String header = request.getHeader("Authorization");
     if (header != null && header.startsWith("Bearer ")) {
-      String token = header.substring(7);
-      if (jwtUtil.validateToken(token)) {
-        String username = jwtUtil.getUsername(token);
-        String roles = jwtUtil.getRoles(token); // "ROLE_USER,ROLE_ADMIN"
-        var authorities = Arrays.stream(roles.split(","))
-            .map(String::trim)
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        var auth = new UsernamePasswordAuthenticationToken(username, null, authorities);
+      // verified once, repeated requests with the same token are answered from JwtUtil's cache
+      JwtPrincipal principal = jwtUtil.authenticate(header.substring(7));
+      // checked on cache hits too, a token revoked after it was cached must stop working
+      if (principal != null && !revocationList.isRevoked(principal)) {
+        var auth = new UsernamePasswordAuthenticationToken(principal.username(), null, principal.authorities());
         SecurityContextHolder.getContext().setAuthentication(auth);
       }
     }
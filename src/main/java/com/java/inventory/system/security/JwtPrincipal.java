@@ -0,0 +1,14 @@
+package com.java.inventory.system.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The verified content of a JWT: who it is for, what they may do and until when.
+ * {@code tokenId} is the {@code jti} claim, null for tokens issued before it was added.
+ */
+public record JwtPrincipal(String username, List<GrantedAuthority> authorities, String tokenId, Instant issuedAt,
+                           Instant expiresAt) {
+}
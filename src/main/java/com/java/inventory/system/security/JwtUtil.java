@@ -1,30 +1,95 @@
 package com.java.inventory.system.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies the HS256 tokens.
+ * <p>
+ * {@link #authenticate(String)} verifies a token once with a shared parser and caches the result until the token's
+ * {@code exp}, so the requests that follow skip the signature check and the JSON parsing. The cache is keyed by the
+ * SHA-256 of the token, not the token itself, and bounded by {@code jwt.cache.max-size}. Authority lists are shared
+ * between all tokens carrying the same roles.
+ * <p>
+ * Every token gets a random {@code jti} so it can be revoked on its own, see {@link TokenRevocationList}.
+ */
 @Component
 public class JwtUtil {
 
   private final Key key;
   private final long expirationMs;
+  private final JwtParser parser;
+  private final Clock clock;
+  private final Cache<String, JwtPrincipal> verified;
+  // one immutable list per distinct roles claim, the claim is signed so only our own role strings get here
+  private final Map<String, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
 
+  @Autowired
   public JwtUtil(@Value("${jwt.secret}") String secret,
-                 @Value("${jwt.expiration-ms}") long expirationMs) {
+                 @Value("${jwt.expiration-ms}") long expirationMs,
+                 @Value("${jwt.cache.max-size:10000}") long cacheSize) {
+    this(secret, expirationMs, cacheSize, Clock.systemUTC());
+  }
+
+  JwtUtil(String secret, long expirationMs, long cacheSize, Clock clock) {
     // secret should be base64 or raw bytes length >= 256 bits for HS256
     this.key = Keys.hmacShaKeyFor(secret.getBytes());
     this.expirationMs = expirationMs;
+    this.clock = clock;
+    // immutable and thread-safe, building one per call was most of the cost of a verification
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(key)
+        .setClock(() -> Date.from(clock.instant()))
+        .build();
+    this.verified = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfter(new Expiry<String, JwtPrincipal>() {
+          @Override
+          public long expireAfterCreate(String hash, JwtPrincipal principal, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, principal.expiresAt().toEpochMilli() - clock.millis()));
+          }
+
+          @Override
+          public long expireAfterUpdate(String hash, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String hash, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
   }
 
   public String generateToken(String username, String roles) {
-    Date now = new Date();
+    Date now = Date.from(clock.instant());
     Date expiry = new Date(now.getTime() + expirationMs);
     return Jwts.builder()
+        .setId(UUID.randomUUID().toString())
         .setSubject(username)
         .claim("roles", roles)
         .setIssuedAt(now)
@@ -33,25 +98,53 @@ public class JwtUtil {
         .compact();
   }
 
-  public boolean validateToken(String token) {
+  /**
+   * The principal of a valid token, null when the token is malformed, forged or expired.
+   */
+  public JwtPrincipal authenticate(String token) {
+    String hash = sha256(token);
+    JwtPrincipal principal = verified.getIfPresent(hash);
+    if (principal != null) {
+      // the cache may hold an entry for a moment past its expiry
+      return principal.expiresAt().isAfter(clock.instant()) ? principal : null;
+    }
+    principal = verify(token);
+    if (principal != null) {
+      verified.put(hash, principal);
+    }
+    return principal;
+  }
+
+  private JwtPrincipal verify(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-      return true;
+      Claims claims = parser.parseClaimsJws(token).getBody();
+      if (claims.getExpiration() == null) {
+        return null; // we always set exp, a token without one was not issued by us
+      }
+      return new JwtPrincipal(claims.getSubject(), authorities(claims.get("roles", String.class)), claims.getId(),
+          claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
     } catch (JwtException | IllegalArgumentException ex) {
-      // log if needed
-      return false;
+      return null;
     }
   }
 
-  public String getUsername(String token) {
-    Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-        .parseClaimsJws(token).getBody();
-    return claims.getSubject();
+  private List<GrantedAuthority> authorities(String roles) {
+    if (roles == null || roles.isBlank()) {
+      return List.of();
+    }
+    return authoritiesByRoles.computeIfAbsent(roles, claim -> Arrays.stream(claim.split(","))
+        .map(String::trim)
+        .filter(role -> !role.isEmpty())
+        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+        .toList());
   }
 
-  public String getRoles(String token) {
-    Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-        .parseClaimsJws(token).getBody();
-    return claims.get("roles", String.class);
+  private static String sha256(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
   }
 }
@@ -0,0 +1,91 @@
+package com.java.inventory.system.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Refuses requests over the client's budget with 429 before they reach a controller, so a runaway client cannot
+ * tie up the connection pool. Runs right after {@link JwtAuthenticationFilter}, which has resolved the user by then.
+ * Every limited response carries {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset};
+ * a refused one also {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  static final String LIMIT_HEADER = "RateLimit-Limit";
+  static final String REMAINING_HEADER = "RateLimit-Remaining";
+  static final String RESET_HEADER = "RateLimit-Reset";
+
+  private final RateLimiter rateLimiter;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  public RateLimitFilter(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !rateLimiter.isEnabled() || group(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    RateLimiter.Decision decision = rateLimiter.tryAcquire(group(request), client(request));
+    response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+    response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+    response.setHeader(RESET_HEADER, String.valueOf(decision.resetSeconds()));
+    if (decision.allowed()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    Map<String, Object> errorDetails = new HashMap<>();
+    errorDetails.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+    errorDetails.put("error", "Too Many Requests");
+    errorDetails.put("message", "Rate limit exceeded. Please try again in " + decision.retryAfterSeconds() + " seconds.");
+    errorDetails.put("path", request.getRequestURI());
+    response.getWriter().write(mapper.writeValueAsString(errorDetails));
+  }
+
+  // null for routes that are not limited (docs, health, CORS preflight)
+  private static RateLimiter.RouteGroup group(HttpServletRequest request) {
+    if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+      return null;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    if (path.startsWith("/api/auth/")) {
+      return RateLimiter.RouteGroup.AUTH;
+    }
+    if (path.equals("/v1/product") || path.startsWith("/v1/product/")) {
+      boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+      return read ? RateLimiter.RouteGroup.PRODUCT_READ : RateLimiter.RouteGroup.PRODUCT_WRITE;
+    }
+    return null;
+  }
+
+  private static String client(HttpServletRequest request) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+      return "u:" + auth.getName();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+}
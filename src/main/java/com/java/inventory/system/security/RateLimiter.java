@@ -0,0 +1,230 @@
+package com.java.inventory.system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client and route group, decided in-process.
+ * <p>
+ * A client is the authenticated user, or the remote address for anonymous requests, so users behind one NAT do not
+ * share a budget. Each bucket holds up to {@code capacity} tokens and refills at {@code refill-per-second}; a request
+ * takes one token or is refused. No request waits on Redis: every {@code app.rate-limit.sync-ms} the tokens taken
+ * since the last sync are added to {@code RATE_LIMIT:<group>:<client>} in one script call per batch, and each bucket
+ * gives up the tokens other instances took meanwhile (a new bucket's first sync only records where the counter
+ * stands). Across N instances a client can therefore get up to N buckets' worth within one sync interval before the
+ * others catch up. If Redis cannot be reached the buckets keep working locally and the unsent counts go out with the
+ * next sync.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+  static final String KEY = "RATE_LIMIT:";
+  private static final int SYNC_BATCH = 500;
+
+  // KEYS counters; ARGV deltas, then ttls in ms. Returns every counter's total after adding.
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> SYNC = RedisScript.of("""
+      local totals = {}
+      for i, key in ipairs(KEYS) do
+        totals[i] = redis.call('INCRBY', key, ARGV[i])
+        redis.call('PEXPIRE', key, ARGV[#KEYS + i])
+      end
+      return totals
+      """, List.class);
+
+  public enum RouteGroup {
+    AUTH, PRODUCT_READ, PRODUCT_WRITE
+  }
+
+  public record Limit(long capacity, double refillPerSecond) {
+
+    long fullRefillMs() {
+      return (long) Math.ceil(capacity / refillPerSecond * 1000);
+    }
+  }
+
+  /**
+   * @param remaining whole tokens left after this request
+   * @param resetSeconds until the bucket is full again
+   * @param retryAfterSeconds until the next token, set when the request was refused
+   */
+  public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+  }
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean enabled;
+  private final Map<RouteGroup, Limit> limits;
+  private final LongSupplier nanoClock;
+  private final Cache<String, Bucket> buckets;
+
+  @Autowired
+  public RateLimiter(StringRedisTemplate redisTemplate,
+                     @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                     @Value("${app.rate-limit.auth.capacity:10}") long authCapacity,
+                     @Value("${app.rate-limit.auth.refill-per-second:0.2}") double authRefill,
+                     @Value("${app.rate-limit.product-read.capacity:200}") long readCapacity,
+                     @Value("${app.rate-limit.product-read.refill-per-second:50}") double readRefill,
+                     @Value("${app.rate-limit.product-write.capacity:50}") long writeCapacity,
+                     @Value("${app.rate-limit.product-write.refill-per-second:10}") double writeRefill,
+                     @Value("${app.rate-limit.max-clients:100000}") long maxClients) {
+    this(redisTemplate, enabled, Map.of(
+            RouteGroup.AUTH, new Limit(authCapacity, authRefill),
+            RouteGroup.PRODUCT_READ, new Limit(readCapacity, readRefill),
+            RouteGroup.PRODUCT_WRITE, new Limit(writeCapacity, writeRefill)),
+        maxClients, System::nanoTime);
+  }
+
+  RateLimiter(StringRedisTemplate redisTemplate, boolean enabled, Map<RouteGroup, Limit> limits, long maxClients,
+              LongSupplier nanoClock) {
+    this.redisTemplate = redisTemplate;
+    this.enabled = enabled;
+    this.limits = new EnumMap<>(limits);
+    this.nanoClock = nanoClock;
+    long idleMs = limits.values().stream().mapToLong(Limit::fullRefillMs).max().orElse(60_000);
+    // a bucket idle for a full refill is full again, dropping it changes nothing
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(maxClients)
+        .expireAfterAccess(Duration.ofMillis(Math.max(idleMs, 60_000)))
+        .build();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Takes one token from the client's bucket for the group.
+   */
+  public Decision tryAcquire(RouteGroup group, String client) {
+    Limit limit = limits.get(group);
+    String key = group.name().toLowerCase() + ":" + client;
+    return buckets.get(key, k -> new Bucket(limit, nanoClock.getAsLong())).tryAcquire(nanoClock.getAsLong());
+  }
+
+  /**
+   * Adds the tokens taken here since the last sync to the shared counters and charges every bucket with what the
+   * other instances took.
+   */
+  @Scheduled(fixedDelayString = "${app.rate-limit.sync-ms:1000}")
+  public void sync() {
+    if (!enabled) {
+      return;
+    }
+    List<String> keys = new ArrayList<>();
+    List<Bucket> batch = new ArrayList<>();
+    List<Long> sent = new ArrayList<>();
+    for (Map.Entry<String, Bucket> entry : buckets.asMap().entrySet()) {
+      long taken = entry.getValue().drain();
+      if (taken < 0) {
+        continue; // not used since the last sync
+      }
+      keys.add(KEY + entry.getKey());
+      batch.add(entry.getValue());
+      sent.add(taken);
+      if (keys.size() == SYNC_BATCH && !send(keys, batch, sent)) {
+        return;
+      }
+    }
+    if (!keys.isEmpty()) {
+      send(keys, batch, sent);
+    }
+  }
+
+  // clears the lists for the next batch; on failure the batch gets its counts back and the rest is left for next time
+  private boolean send(List<String> keys, List<Bucket> batch, List<Long> sent) {
+    Object[] args = new Object[keys.size() * 2];
+    for (int i = 0; i < keys.size(); i++) {
+      args[i] = String.valueOf(sent.get(i));
+      args[keys.size() + i] = String.valueOf(Math.max(2 * batch.get(i).limit.fullRefillMs(), 60_000));
+    }
+    try {
+      List<?> totals = redisTemplate.execute(SYNC, List.copyOf(keys), args);
+      for (int i = 0; i < keys.size(); i++) {
+        batch.get(i).reconcile(sent.get(i), ((Number) totals.get(i)).longValue());
+      }
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("Unable to sync rate limit counters, limiting locally until Redis is back: {}", e.getMessage());
+      for (int i = 0; i < keys.size(); i++) {
+        batch.get(i).restore(sent.get(i));
+      }
+      return false;
+    } finally {
+      keys.clear();
+      batch.clear();
+      sent.clear();
+    }
+  }
+
+  static final class Bucket {
+
+    private final Limit limit;
+    private double tokens;
+    private long refilledAt;
+    // tokens taken here since the last sync, -1 when the bucket was not used at all
+    private long unsynced = -1;
+    // the shared counter as of the last sync, -1 before the first one
+    private long seenTotal = -1;
+
+    Bucket(Limit limit, long now) {
+      this.limit = limit;
+      this.tokens = limit.capacity();
+      this.refilledAt = now;
+    }
+
+    synchronized Decision tryAcquire(long now) {
+      refill(now);
+      unsynced = Math.max(unsynced, 0);
+      boolean allowed = tokens >= 1;
+      if (allowed) {
+        tokens -= 1;
+        unsynced++;
+      }
+      long resetSeconds = (long) Math.ceil((limit.capacity() - tokens) / limit.refillPerSecond());
+      long retryAfterSeconds = allowed ? 0 : (long) Math.ceil((1 - tokens) / limit.refillPerSecond());
+      return new Decision(allowed, limit.capacity(), (long) tokens, resetSeconds, retryAfterSeconds);
+    }
+
+    synchronized long drain() {
+      long taken = unsynced;
+      unsynced = -1;
+      return taken;
+    }
+
+    synchronized void reconcile(long sent, long total) {
+      if (seenTotal < 0) {
+        // a new bucket starts full, whatever the counter held before it existed is not charged again
+        seenTotal = total;
+        return;
+      }
+      // a counter that expired in Redis starts over, everything above what we just sent is someone else's
+      long others = total >= seenTotal + sent ? total - seenTotal - sent : total - sent;
+      tokens = Math.max(0, tokens - Math.max(0, others));
+      seenTotal = total;
+    }
+
+    synchronized void restore(long sent) {
+      unsynced = Math.max(unsynced, 0) + sent;
+    }
+
+    private void refill(long now) {
+      tokens = Math.min(limit.capacity(), tokens + (now - refilledAt) / 1e9 * limit.refillPerSecond());
+      refilledAt = now;
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.java.inventory.system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.java.inventory.system.constant.InventoryConstant.TOKEN_REVOCATION_CHANNEL;
+
+/**
+ * Revoked JWTs, checked on every authenticated request without leaving the process.
+ * <p>
+ * Redis is the source of truth: {@code JWT_REVOKED:<jti>} for a single token (logout) and
+ * {@code JWT_REVOKED_USER:<username>} holding the instant before which all of a user's tokens are revoked, both
+ * expiring once the tokens they cover would have expired anyway. Every instance keeps a Bloom filter of those keys,
+ * filled from a SCAN on startup and every {@code jwt.revocation.rebuild-ms} (which also drops expired entries), and
+ * told about new revocations over Redis pub/sub. A token that is not in the filter is not revoked; only a probable
+ * hit, or a check before the first scan has finished, asks Redis. Those answers are kept briefly and dropped on
+ * every revocation. If Redis cannot be asked, the token is treated as revoked.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener {
+
+  static final String TOKEN_KEY = "JWT_REVOKED:";
+  static final String USER_KEY = "JWT_REVOKED_USER:";
+  private static final String TOKEN = "t:";
+  private static final String USER = "u:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final ChannelTopic revocationTopic = new ChannelTopic(TOKEN_REVOCATION_CHANNEL);
+  private final long expirationMs;
+  private final long expectedEntries;
+  private final double falsePositiveRate;
+
+  private volatile BloomFilter filter;
+  // the filter a rebuild is filling, revocations arriving meanwhile go into both
+  private volatile BloomFilter building;
+  private volatile boolean ready;
+
+  // Redis answers for probable hits, a revocation bumps the generation so a lookup racing it is not kept
+  private final Cache<String, Boolean> verdicts = Caffeine.newBuilder()
+      .maximumSize(10_000)
+      .expireAfterWrite(Duration.ofMinutes(1))
+      .build();
+  private final AtomicLong generation = new AtomicLong();
+
+  public TokenRevocationList(StringRedisTemplate redisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             @Value("${jwt.expiration-ms}") long expirationMs,
+                             @Value("${jwt.revocation.expected-entries:100000}") long expectedEntries,
+                             @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+    this.redisTemplate = redisTemplate;
+    this.listenerContainer = listenerContainer;
+    this.expirationMs = expirationMs;
+    this.expectedEntries = expectedEntries;
+    this.falsePositiveRate = falsePositiveRate;
+    this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+  }
+
+  @PostConstruct
+  void subscribe() {
+    listenerContainer.addMessageListener(this, revocationTopic);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+    rebuild();
+  }
+
+  /**
+   * Replaces the filter with one holding exactly the revocations currently in Redis.
+   */
+  @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-ms:600000}", initialDelayString = "${jwt.revocation.rebuild-ms:600000}")
+  public synchronized void rebuild() {
+    long start = System.currentTimeMillis();
+    BloomFilter next = new BloomFilter(expectedEntries, falsePositiveRate);
+    building = next;
+    try {
+      long count = scan(TOKEN_KEY, TOKEN, next) + scan(USER_KEY, USER, next);
+      filter = next;
+      ready = true;
+      log.info("Token revocation filter built: {} entries in {} ms.", count, System.currentTimeMillis() - start);
+    } catch (RuntimeException e) {
+      log.warn("Unable to build the token revocation filter, keeping the previous one: {}", e.getMessage());
+    } finally {
+      building = null;
+    }
+  }
+
+  public boolean isRevoked(JwtPrincipal principal) {
+    BloomFilter current = filter;
+    boolean tokenHit = principal.tokenId() != null && current.mightContain(TOKEN + principal.tokenId());
+    boolean userHit = current.mightContain(USER + principal.username());
+    if (ready && !tokenHit && !userHit) {
+      return false;
+    }
+    String key = principal.tokenId() != null
+        ? principal.tokenId()
+        : principal.username() + "@" + principal.issuedAt();
+    Boolean cached = verdicts.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    long seen = generation.get();
+    boolean revoked;
+    try {
+      revoked = lookup(principal, tokenHit || !ready, userHit || !ready);
+    } catch (RuntimeException e) {
+      log.warn("Unable to check token revocation for user [{}], rejecting the token: {}",
+          principal.username(), e.getMessage());
+      return true;
+    }
+    verdicts.put(key, revoked);
+    if (generation.get() != seen) {
+      verdicts.invalidate(key); // a revocation came in while Redis was asked, the answer may be stale
+    }
+    return revoked;
+  }
+
+  /**
+   * Revokes one token until its own expiry.
+   */
+  public void revokeToken(String tokenId, Instant expiresAt) {
+    long ttlMs = expiresAt.toEpochMilli() - System.currentTimeMillis();
+    if (ttlMs <= 0) {
+      return;
+    }
+    redisTemplate.opsForValue().set(TOKEN_KEY + tokenId, "1", ttlMs, TimeUnit.MILLISECONDS);
+    record(TOKEN + tokenId);
+  }
+
+  /**
+   * Revokes every token issued to the user up to now, tokens issued afterwards stay valid.
+   */
+  public void revokeUser(String username) {
+    redisTemplate.opsForValue().set(USER_KEY + username, String.valueOf(System.currentTimeMillis()),
+        expirationMs, TimeUnit.MILLISECONDS);
+    record(USER + username);
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    add(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private boolean lookup(JwtPrincipal principal, boolean checkToken, boolean checkUser) {
+    if (checkToken && principal.tokenId() != null
+        && Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_KEY + principal.tokenId()))) {
+      return true;
+    }
+    if (checkUser) {
+      String revokedAt = redisTemplate.opsForValue().get(USER_KEY + principal.username());
+      // iat has whole seconds, a token from the same second as the revocation counts as revoked
+      return revokedAt != null && (principal.issuedAt() == null
+          || principal.issuedAt().toEpochMilli() <= Long.parseLong(revokedAt));
+    }
+    return false;
+  }
+
+  // written to Redis before this, so a rebuild scanning concurrently finds it either in Redis or through add()
+  private void record(String member) {
+    add(member);
+    try {
+      redisTemplate.convertAndSend(revocationTopic.getTopic(), member);
+    } catch (RuntimeException e) {
+      log.warn("Unable to broadcast token revocation, other instances will see it after their next rebuild: {}",
+          e.getMessage());
+    }
+  }
+
+  private void add(String member) {
+    // building is read first: if it is already null, the rebuild has swapped and filter is the new one
+    BloomFilter next = building;
+    filter.put(member);
+    if (next != null) {
+      next.put(member);
+    }
+    generation.incrementAndGet();
+    verdicts.invalidateAll();
+  }
+
+  private long scan(String keyPrefix, String memberPrefix, BloomFilter target) {
+    long count = 0;
+    try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build())) {
+      while (keys.hasNext()) {
+        target.put(memberPrefix + keys.next().substring(keyPrefix.length()));
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -1,18 +1,21 @@
 package com.java.inventory.system.service;
 
-import com.java.inventory.system.constant.InventoryConstant;
 import com.java.inventory.system.dto.AuthenticationRequest;
+import com.java.inventory.system.model.AuthenticatedUser;
 import com.java.inventory.system.exception.BaseException;
 import com.java.inventory.system.exception.ErrorType;
 import com.java.inventory.system.model.User;
 import com.java.inventory.system.repository.UserRepository;
+import com.java.inventory.system.security.BoundedPasswordEncoder;
+import com.java.inventory.system.security.JwtPrincipal;
 import com.java.inventory.system.security.JwtUtil;
+import com.java.inventory.system.security.TokenRevocationList;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,14 +23,11 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.*;
 
@@ -38,10 +38,12 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final OtpService otpService;
     private final JwtUtil jwtUtil;
-    private final StringRedisTemplate redisTemplate;
+    private final AuthSessionStore authSessionStore;
+    private final TokenRevocationList revocationList;
+    private final UserCacheService userCacheService;
 
     public ResponseEntity<?> login(AuthenticationRequest request) {
         try {
@@ -50,17 +52,10 @@ public class AuthService {
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
 
-            User user = userRepository.findByUsername(request.getUsername())
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            // loaded by CustomUserDetailsService during authenticate, no need to read the user again
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
 
-            String tempToken = UUID.randomUUID().toString();
-
-            redisTemplate.opsForValue().set(
-                    "TEMP_LOGIN:" + tempToken,
-                    user.getUsername(),
-                    InventoryConstant.TEMP_TOKEN_EXPIRATION_MINUTES,
-                    TimeUnit.MINUTES
-            );
+            String tempToken = authSessionStore.issue(user.getUsername());
 
             // create temporary token after login (this will be used for otp verification)
             return ResponseEntity
@@ -69,6 +64,8 @@ public class AuthService {
                             "tempToken", tempToken,
                             "email", user.getEmail()
                     ));
+        } catch (BaseException e) {
+            throw e; // password hashing is saturated (429/503)
         } catch (BadCredentialsException e) {
             log.error("BadCredentialsException: {}", e.getMessage());
             throw new BaseException(ERR_CLIENT_INVALID_CREDENTIALS);
@@ -124,15 +121,10 @@ public class AuthService {
             // isVerified remains false (for new or existing unverified user)
 
             userRepository.save(targetUser);
+            userCacheService.evict(targetUser.getUsername());
 
             // 4. Generate temporary verification token
-            String tempToken = UUID.randomUUID().toString();
-            redisTemplate.opsForValue().set(
-                    "TEMP_LOGIN:" + tempToken,
-                    targetUser.getUsername(),
-                    InventoryConstant.TEMP_TOKEN_EXPIRATION_MINUTES,
-                    TimeUnit.MINUTES
-            );
+            String tempToken = authSessionStore.issue(targetUser.getUsername());
 
             // 5. Return appropriate response
             HttpStatus status = isUpdate ? HttpStatus.OK : HttpStatus.CREATED;
@@ -146,6 +138,8 @@ public class AuthService {
                     "email", targetUser.getEmail()
             ));
 
+        } catch (BaseException e) {
+            throw e; // conflicts and saturated password hashing keep their own status
         } catch (DataIntegrityViolationException e) {
             // This handles rare race conditions where email/mobile was taken between check and save
             log.error("Data integrity violation during registration", e);
@@ -156,6 +150,40 @@ public class AuthService {
         }
     }
 
+    /**
+     * Revokes the bearer token of this request. Tokens without a jti (issued before they had one) can only be
+     * revoked together with the rest of the user's tokens.
+     */
+    public ResponseEntity<?> logout(HttpServletRequest servletRequest) {
+        String authHeader = servletRequest.getHeader("Authorization");
+        JwtPrincipal principal = authHeader != null && authHeader.startsWith("Bearer ")
+                ? jwtUtil.authenticate(authHeader.substring(7))
+                : null;
+        if (principal == null || revocationList.isRevoked(principal)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        if (principal.tokenId() != null) {
+            revocationList.revokeToken(principal.tokenId(), principal.expiresAt());
+        } else {
+            revocationList.revokeUser(principal.username());
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
+    /**
+     * Revokes every token issued to the user so far, e.g. after a password leak or when access is withdrawn.
+     */
+    public ResponseEntity<?> revokeUser(String username) {
+        if (userCacheService.findByUsername(username).isEmpty()) {
+            throw new BaseException(ERR_CLIENT_USER_NOT_FOUND);
+        }
+        revocationList.revokeUser(username);
+        log.info("Revoked all tokens of user [{}]", username);
+        return ResponseEntity.ok(Map.of("message", "All tokens of " + username + " have been revoked"));
+    }
+
     private BaseException conflictResponse(ErrorType error, String errorMessage) {
         return new BaseException(error) {
             @Override
@@ -0,0 +1,156 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.constant.InventoryConstant;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The login / OTP state of one sign-in, kept in the Redis hash {@code AUTH_SESSION:<tempToken>}.
+ * <p>
+ * Each step of the flow is a single Lua script, so it costs one round trip and no other request can interleave:
+ * <ul>
+ *     <li>{@link #issue(String)}: creates the session after the password (or registration) checked out</li>
+ *     <li>{@link #storeOtp}: counts the resend against the user's limit and stores the new OTP, or refuses</li>
+ *     <li>{@link #verifyOtp}: checks the OTP and, when it matches, deletes the session and the resend counter</li>
+ * </ul>
+ * The resend counter stays per user ({@code OTP_ATTEMPT:<username>}) rather than per session, so signing in again
+ * does not reset it. The scripts derive that key from the session's username, which is fine on a single Redis
+ * (or a primary with replicas) but would need hash tags on Redis Cluster.
+ */
+@Service
+public class AuthSessionStore {
+
+    static final String SESSION_KEY = "AUTH_SESSION:";
+    static final String ATTEMPT_KEY = "OTP_ATTEMPT:";
+
+    private static final String NOW_MS = """
+            local now = redis.call('TIME')
+            local nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+            """;
+
+    // KEYS[1] session; ARGV username, ttl ms
+    private static final RedisScript<Long> ISSUE = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'username', ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // KEYS[1] session; ARGV otp, otp ttl ms, max attempts, cooldown ms, attempt key prefix
+    // returns {status, username, attempts before this one, remaining cooldown ms}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> STORE_OTP = RedisScript.of("""
+            local username = redis.call('HGET', KEYS[1], 'username')
+            if not username then
+              return {-1}
+            end
+            local attemptKey = ARGV[5] .. username
+            local attempts = tonumber(redis.call('GET', attemptKey) or '0')
+            if attempts >= tonumber(ARGV[3]) then
+              return {0, username, attempts, redis.call('PTTL', attemptKey)}
+            end
+            redis.call('INCR', attemptKey)
+            redis.call('PEXPIRE', attemptKey, ARGV[4])
+            """ + NOW_MS + """
+            redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'otpExpiresAt', nowMs + tonumber(ARGV[2]))
+            return {1, username, attempts, 0}
+            """, List.class);
+
+    // KEYS[1] session; ARGV otp, attempt key prefix
+    // returns {status, username}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_OTP = RedisScript.of("""
+            local session = redis.call('HMGET', KEYS[1], 'username', 'otp', 'otpExpiresAt')
+            local username = session[1]
+            if not username then
+              return {-1}
+            end
+            """ + NOW_MS + """
+            if not session[2] or session[2] ~= ARGV[1] or not session[3] or tonumber(session[3]) < nowMs then
+              return {0, username}
+            end
+            redis.call('DEL', KEYS[1], ARGV[2] .. username)
+            return {1, username}
+            """, List.class);
+
+    public enum OtpStatus {
+        /** stored, or verified and consumed */
+        OK,
+        /** resend limit reached / wrong or expired OTP */
+        REFUSED,
+        /** the temp token is unknown or expired */
+        NO_SESSION
+    }
+
+    /**
+     * @param attempts resends before this one
+     * @param cooldownMs how long until the limit resets, set when {@link OtpStatus#REFUSED}
+     */
+    public record OtpResult(OtpStatus status, String username, int attempts, long cooldownMs) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    public AuthSessionStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Starts a session for the user and returns its temp token.
+     */
+    public String issue(String username) {
+        String tempToken = UUID.randomUUID().toString();
+        redisTemplate.execute(ISSUE, List.of(SESSION_KEY + tempToken), username,
+                String.valueOf(TimeUnit.MINUTES.toMillis(InventoryConstant.TEMP_TOKEN_EXPIRATION_MINUTES)));
+        return tempToken;
+    }
+
+    /**
+     * The username of a live session, null when the temp token is unknown or expired.
+     */
+    public String getUsername(String tempToken) {
+        if (tempToken == null) {
+            return null;
+        }
+        return (String) redisTemplate.opsForHash().get(SESSION_KEY + tempToken, "username");
+    }
+
+    /**
+     * Counts a resend and stores {@code otp} in the session, unless the user already used {@code maxAttempts}
+     * resends within the cooldown.
+     */
+    public OtpResult storeOtp(String tempToken, String otp, int maxAttempts, long cooldownMinutes) {
+        List<?> result = redisTemplate.execute(STORE_OTP, List.of(SESSION_KEY + tempToken), otp,
+                String.valueOf(TimeUnit.MINUTES.toMillis(InventoryConstant.OTP_EXPIRATION_MINUTES)),
+                String.valueOf(maxAttempts), String.valueOf(TimeUnit.MINUTES.toMillis(cooldownMinutes)), ATTEMPT_KEY);
+        return toResult(result);
+    }
+
+    /**
+     * Checks the OTP; on a match the session and the user's resend counter are deleted in the same step, so an OTP
+     * can be used once.
+     */
+    public OtpResult verifyOtp(String tempToken, String otp) {
+        if (tempToken == null) {
+            return new OtpResult(OtpStatus.NO_SESSION, null, 0, 0);
+        }
+        return toResult(redisTemplate.execute(VERIFY_OTP, List.of(SESSION_KEY + tempToken), Objects.toString(otp, ""),
+                ATTEMPT_KEY));
+    }
+
+    private static OtpResult toResult(List<?> reply) {
+        long status = ((Number) Objects.requireNonNull(reply, "script returned nothing").get(0)).longValue();
+        if (status < 0) {
+            return new OtpResult(OtpStatus.NO_SESSION, null, 0, 0);
+        }
+        String username = (String) reply.get(1);
+        int attempts = reply.size() > 2 ? ((Number) reply.get(2)).intValue() : 0;
+        long cooldownMs = reply.size() > 3 ? ((Number) reply.get(3)).longValue() : 0;
+        return new OtpResult(status == 1 ? OtpStatus.OK : OtpStatus.REFUSED, username, attempts, cooldownMs);
+    }
+}
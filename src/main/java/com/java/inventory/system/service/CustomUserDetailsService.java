@@ -1,5 +1,6 @@
 package com.java.inventory.system.service;
 
+import com.java.inventory.system.model.AuthenticatedUser;
 import com.java.inventory.system.model.User;
 import com.java.inventory.system.repository.UserRepository;
 import org.springframework.security.core.userdetails.*;
@@ -10,15 +11,17 @@ import java.util.Arrays;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
-    public CustomUserDetailsService(UserRepository userRepository) {
+    private final UserCacheService userCacheService;
+    public CustomUserDetailsService(UserRepository userRepository, UserCacheService userCacheService) {
         this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userCacheService.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         // Split roles, trim, and prefix with "ROLE_" (standardize to uppercase)
@@ -27,11 +30,23 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), authorities);
+        return new AuthenticatedUser(user.getUsername(), user.getPassword(), authorities, user.getEmail());
+    }
+
+    // called by the authentication provider after a login whose stored hash uses another BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        // the cached row may be stale, saving it would write old values back
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCacheService.evict(user.getUsername());
+        return new AuthenticatedUser(user.getUsername(), newPassword, userDetails.getAuthorities(), user.getEmail());
     }
 
     public String getTelegramChatId(String username) {
-        User user = userRepository.findByUsername(username).orElse(null);
+        User user = userCacheService.findByUsername(username).orElse(null);
         return user != null ? user.getTelegramChatId() : null;
     }
 
@@ -42,5 +57,6 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         user.setTelegramChatId(chatId);
         userRepository.save(user);
+        userCacheService.evict(username);
     }
-}
\ No newline at end of file
+}
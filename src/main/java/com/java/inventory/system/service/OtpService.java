@@ -1,6 +1,5 @@
 package com.java.inventory.system.service;
 
-import com.java.inventory.system.constant.InventoryConstant;
 import com.java.inventory.system.dto.OtpVerificationRequest;
 import com.java.inventory.system.exception.BaseException;
 import com.java.inventory.system.exception.ErrorType;
@@ -15,7 +14,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -46,9 +44,10 @@ public class OtpService {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
-    private final StringRedisTemplate redisTemplate;
+    private final AuthSessionStore authSessionStore;
     private final TelegramLongPollingBot telegramBot;
     private final CustomUserDetailsService userService; // For getting chatId
+    private final UserCacheService userCacheService;
 
     public ResponseEntity<?> sendOtp(OtpVerificationRequest request, HttpServletRequest servletRequest) {
         if (StringUtils.isNotBlank(request.getTempToken())) {
@@ -59,71 +58,66 @@ public class OtpService {
     }
 
     public ResponseEntity<?> sendOtpViaEmail(OtpVerificationRequest request) {
-        String username = redisTemplate.opsForValue().get("TEMP_LOGIN:" + request.getTempToken());
-        if (username == null) {
+        String otp = OtpGenerator.generateOtp();
+        AuthSessionStore.OtpResult result = storeOtp(request.getTempToken(), otp);
+        if (result.status() == AuthSessionStore.OtpStatus.NO_SESSION) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid or expired session"));
         }
 
-        OtpLimit otpLimit = checkAndLimitOtpResendAttempts(username);
-        sendOtpEmail(request.getEmail(), generateAndStoreOtp(username));
-
-        return ResponseEntity.ok(Map.of(
-                "message", "OTP sent to your registered email",
-                "attempts_used", otpLimit.getAttempts() + 1,
-                "attempts_remaining", Math.max(0, otpLimit.getMaxAttempts() - (otpLimit.getAttempts() + 1))
+        sendOtpEmail(request.getEmail(), otp);
 
-        ));
+        return attemptsResponse("OTP sent to your registered email", result);
     }
 
     public ResponseEntity<?> sentOtpViaTelegram(HttpServletRequest servletRequest) {
-        String username = validateTempTokenAndGetUserId(servletRequest);
+        String tempToken = bearerToken(servletRequest);
+        // checked before storing: a new OTP that cannot be sent must not replace one already delivered by email
+        String username = authSessionStore.getUsername(tempToken);
+        if (username == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired tempToken");
+        }
         String chatId = userService.getTelegramChatId(username);
-
         if (chatId == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Telegram not linked for user: " + username));
         }
 
-        OtpLimit otpLimit = checkAndLimitOtpResendAttempts(username);
-        sendOtpTelegram(chatId, generateAndStoreOtp(username));
+        String otp = OtpGenerator.generateOtp();
+        AuthSessionStore.OtpResult result = storeOtp(tempToken, otp);
+        if (result.status() == AuthSessionStore.OtpStatus.NO_SESSION) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired tempToken");
+        }
 
-        return ResponseEntity.ok(Map.of(
-                "message", "OTP sent to your linked Telegram account.",
-                "attempts_used", otpLimit.getAttempts() + 1,
-                "attempts_remaining", Math.max(0, otpLimit.getMaxAttempts() - (otpLimit.getAttempts() + 1))
-        ));
-    }
+        sendOtpTelegram(chatId, otp);
 
-    public OtpLimit checkAndLimitOtpResendAttempts(String username) {
-        // 🔒 Limit resend attempts to 3 per 10 minutes
-        String attemptKey = "OTP_ATTEMPT:" + username;;
+        return attemptsResponse("OTP sent to your linked Telegram account.", result);
+    }
 
+    // 🔒 Limit resend attempts to 3 per 10 minutes, counted and stored in one atomic step
+    private AuthSessionStore.OtpResult storeOtp(String tempToken, String otp) {
         OtpLimit otpLimit = new OtpLimit();
-
-        String attemptsStr = redisTemplate.opsForValue().get(attemptKey);
-        int attempts = (attemptsStr != null) ? Integer.parseInt(attemptsStr) : 0;
-
-        if (attempts >= otpLimit.getMaxAttempts()) {
-            // 🕒 Get remaining cooldown time in seconds
-            Long ttlSeconds = redisTemplate.getExpire(attemptKey, TimeUnit.SECONDS);
-
-            if (ttlSeconds == null || ttlSeconds <= 0) {
-                ttlSeconds = otpLimit.getCooldownMinutes() * 60;
-            }
-
-            long remainingMinutes = ttlSeconds / 60;
-            long remainingSeconds = ttlSeconds % 60;
-
-            throw createRateLimitException(ERR_CLIENT_MAXIMUM_ATTEMPT, remainingMinutes, remainingSeconds);
+        AuthSessionStore.OtpResult result = authSessionStore.storeOtp(tempToken, otp, otpLimit.getMaxAttempts(),
+                otpLimit.getCooldownMinutes());
+
+        if (result.status() == AuthSessionStore.OtpStatus.REFUSED) {
+            // 🕒 Remaining cooldown time in seconds
+            long ttlSeconds = result.cooldownMs() > 0
+                    ? TimeUnit.MILLISECONDS.toSeconds(result.cooldownMs())
+                    : otpLimit.getCooldownMinutes() * 60;
+            throw createRateLimitException(ERR_CLIENT_MAXIMUM_ATTEMPT, ttlSeconds / 60, ttlSeconds % 60);
         }
+        return result;
+    }
 
-        // ✅ Increment attempts count (expire after cooldown)
-        redisTemplate.opsForValue().increment(attemptKey);
-        redisTemplate.expire(attemptKey, otpLimit.getCooldownMinutes(), TimeUnit.MINUTES);
-
-        otpLimit.setAttempts(attempts);
-        return otpLimit;
+    private ResponseEntity<?> attemptsResponse(String message, AuthSessionStore.OtpResult result) {
+        OtpLimit otpLimit = new OtpLimit();
+        otpLimit.setAttempts(result.attempts());
+        return ResponseEntity.ok(Map.of(
+                "message", message,
+                "attempts_used", otpLimit.getAttempts() + 1,
+                "attempts_remaining", Math.max(0, otpLimit.getMaxAttempts() - (otpLimit.getAttempts() + 1))
+        ));
     }
 
     private BaseException createRateLimitException(ErrorType error, long minutes, long seconds) {
@@ -138,29 +132,12 @@ public class OtpService {
         };
     }
 
-    public String generateAndStoreOtp(String username) {
-        String otp = OtpGenerator.generateOtp();
-        redisTemplate.opsForValue().set(
-                "OTP:" + username,
-                otp,
-                InventoryConstant.OTP_EXPIRATION_MINUTES,
-                TimeUnit.MINUTES
-        );
-        return otp;
-    }
-
-    // Helper method to validate tempToken and get userId
-    private String validateTempTokenAndGetUserId(HttpServletRequest request) {
+    private String bearerToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid tempToken");
         }
-        String tempToken = authHeader.substring(7); // Remove "Bearer "
-        String userId = redisTemplate.opsForValue().get("TEMP_LOGIN:" + tempToken);
-        if (userId == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired tempToken");
-        }
-        return userId;
+        return authHeader.substring(7); // Remove "Bearer "
     }
 
     public void sendOtpEmail(String toEmail, String otp) {
@@ -228,19 +205,20 @@ public class OtpService {
 
     public ResponseEntity<?> validateOtp(OtpVerificationRequest request) {
         try {
-            String username = redisTemplate.opsForValue().get("TEMP_LOGIN:" + request.getTempToken());
+            // checks the OTP and ends the session (OTP, temp token and resend counter) in one step
+            AuthSessionStore.OtpResult result = authSessionStore.verifyOtp(request.getTempToken(), request.getOtp());
 
-            if (username == null) {
+            if (result.status() == AuthSessionStore.OtpStatus.NO_SESSION) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid or expired session"));
             }
-
-            boolean isValidOtp = validateOtp(username, request.getOtp());
-            if (!isValidOtp) {
+            if (result.status() == AuthSessionStore.OtpStatus.REFUSED) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("error", "Invalid OTP"));
             }
+            String username = result.username();
 
+            // saved below, so not the possibly stale cached row
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
@@ -248,12 +226,10 @@ public class OtpService {
             user.setIsVerified(Boolean.TRUE);
             user.setRoles("ROLE_ADMIN");
             userRepository.save(user);
+            userCacheService.evict(username);
 
             String jwt = jwtUtil.generateToken(username, user.getRoles());
 
-            redisTemplate.delete("OTP_ATTEMPT:" + username);
-            redisTemplate.delete("TEMP_LOGIN:" + request.getTempToken());
-
             return ResponseEntity.ok(new AuthResponse(jwt));
 
         } catch (UsernameNotFoundException e) {
@@ -265,16 +241,4 @@ public class OtpService {
                     .body(Map.of("error", "An unexpected error occurred"));
         }
     }
-
-    public boolean validateOtp(String username, String otp) {
-        String key = "OTP:" + username;
-        String storedOtp = redisTemplate.opsForValue().get(key);
-
-        if (storedOtp != null && storedOtp.equals(otp)) {
-            // Remove OTP after successful verification
-            redisTemplate.delete(key);
-            return true;
-        }
-        return false;
-    }
 }
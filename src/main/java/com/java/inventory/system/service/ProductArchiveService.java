@@ -0,0 +1,101 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.dto.ArchivePage;
+import com.java.inventory.system.repository.ArchivedProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves soft-deleted products out of the live table.
+ * <p>
+ * Products deleted more than {@code app.archive.retention-days} ago are copied to product_archive and removed from
+ * product in chunks of {@code app.archive.chunk-size}, one transaction per chunk. The chunk's rows are locked first,
+ * so two instances running the archiver at the same time cannot archive a product twice.
+ */
+@Slf4j
+@Service
+public class ProductArchiveService {
+
+    private static final String SELECT_DUE =
+            "SELECT id FROM product WHERE deleted_at < ? ORDER BY deleted_at, id LIMIT ? FOR UPDATE";
+    private static final String COPY = """
+            INSERT INTO product_archive (id, item_name, description, category, unit_price, quantity, unit, version,
+                item_name_key, category_key, deleted_at, archived_at)
+            SELECT id, item_name, description, category, unit_price, quantity, unit, version,
+                LOWER(TRIM(item_name)), category_key, deleted_at, :archivedAt
+            FROM product WHERE id IN (:ids) AND deleted_at IS NOT NULL
+            """;
+    private static final String REMOVE = "DELETE FROM product WHERE id IN (:ids) AND deleted_at IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedProductRepository archivedProductRepository;
+    private final int retentionDays;
+    private final int chunkSize;
+
+    public ProductArchiveService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ArchivedProductRepository archivedProductRepository,
+                                 @Value("${app.archive.retention-days:30}") int retentionDays,
+                                 @Value("${app.archive.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedProductRepository = archivedProductRepository;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivePage findArchived(String productName, String category, Pageable pageable) {
+        log.info("Searching product archive (name={}, category={}, page={}, size={})...",
+                productName, category, pageable.getPageNumber(), pageable.getPageSize());
+        return ArchivePage.of(archivedProductRepository.findByItemNameAndCategory(productName, category, pageable));
+    }
+
+    // "-" as the cron expression turns the archiver off
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        archive(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Archives every product deleted before {@code deletedBefore} and returns how many were moved.
+     */
+    public int archive(LocalDateTime deletedBefore) {
+        log.info("Archiving products deleted before {}...", deletedBefore);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(deletedBefore));
+            total += moved;
+        } while (moved == chunkSize);
+
+        log.info("Archived {} products.", total);
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime deletedBefore) {
+        List<String> ids = jdbcTemplate.queryForList(SELECT_DUE, String.class, Timestamp.valueOf(deletedBefore), chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> params = Map.of("ids", ids, "archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbcTemplate.update(COPY, params);
+        return namedJdbcTemplate.update(REMOVE, params);
+    }
+}
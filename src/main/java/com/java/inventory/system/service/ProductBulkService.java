@@ -0,0 +1,133 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.dto.BulkDeleteRequest;
+import com.java.inventory.system.dto.BulkUpdateRequest;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bulk update/delete executed as set-based statements ({@code WHERE id IN (...)}). Deletes are soft, like single
+ * ones, and leave the rows to {@link ProductArchiveService}.
+ * <p>
+ * Work is split into chunks of {@code app.bulk.chunk-size} ids, each chunk runs in its own transaction so a large
+ * category never holds locks for the whole run. Category filters are resolved to id chunks by walking the primary key.
+ */
+@Slf4j
+@Service
+public class ProductBulkService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchCache productSearchCache;
+    private final ProductStatsService productStatsService;
+    private final ProductQuantityBuffer productQuantityBuffer;
+    private final int chunkSize;
+
+    public ProductBulkService(ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              ProductCacheService productCacheService,
+                              ProductSearchIndex productSearchIndex,
+                              ProductSearchCache productSearchCache,
+                              ProductStatsService productStatsService,
+                              ProductQuantityBuffer productQuantityBuffer,
+                              @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productCacheService = productCacheService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSearchCache = productSearchCache;
+        this.productStatsService = productStatsService;
+        this.productQuantityBuffer = productQuantityBuffer;
+        this.chunkSize = chunkSize;
+    }
+
+    public Map<String, Object> bulkDelete(BulkDeleteRequest request) {
+        log.info("Bulk deleting products (ids={}, category={})...", sizeOf(request.getIds()), request.getCategory());
+
+        int deleted = forEachChunk(request.getIds(), request.getCategory(),
+                ids -> productRepository.softDeleteByIds(ids, LocalDateTime.now()),
+                ids -> {
+                    productCacheService.evictAll(ids);
+                    productSearchIndex.removeAll(ids);
+                    productStatsService.removeAll(ids);
+                    // set-based statements do not tell which categories the ids were in
+                    productSearchCache.invalidateAll();
+                });
+
+        log.info("Bulk delete completed: {} products deleted.", deleted);
+        return Map.of("deleted", deleted);
+    }
+
+    public Map<String, Object> bulkUpdate(BulkUpdateRequest request) {
+        log.info("Bulk updating products (ids={}, category={})...", sizeOf(request.getIds()), request.getCategory());
+
+        int updated = forEachChunk(request.getIds(), request.getCategory(),
+                ids -> {
+                    // an absolute quantity replaces buffered deltas, write them out before it does
+                    productQuantityBuffer.flush(ids);
+                    return productRepository.bulkUpdate(ids, request.getUnitPrice(), request.getQuantity(),
+                            StringUtils.trimToNull(request.getUnit()), StringUtils.trimToNull(request.getNewCategory()));
+                },
+                ids -> {
+                    productCacheService.evictAll(ids);
+                    List<Product> products = productRepository.findByIdIn(ids);
+                    productSearchIndex.indexAll(products);
+                    productStatsService.updateAll(products);
+                    productSearchCache.invalidateAll();
+                });
+
+        log.info("Bulk update completed: {} products updated.", updated);
+        return Map.of("updated", updated);
+    }
+
+    /**
+     * Runs {@code statement} once per chunk of ids, each in its own transaction, and sums the affected rows.
+     * {@code afterCommit} refreshes caches for the chunk once its transaction has committed.
+     */
+    private int forEachChunk(List<String> ids, String category, ToIntFunction<List<String>> statement,
+                             Consumer<List<String>> afterCommit) {
+        int affected = 0;
+        if (ids != null && !ids.isEmpty()) {
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += chunkSize) {
+                List<String> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+                affected += transactionTemplate.execute(status -> statement.applyAsInt(chunk));
+                afterCommit.accept(chunk);
+            }
+            return affected;
+        }
+
+        String afterId = "";
+        while (true) {
+            String lastId = afterId;
+            List<String> chunk = productRepository.findIdsByCategoryAfter(category, lastId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                return affected;
+            }
+            affected += transactionTemplate.execute(status -> statement.applyAsInt(chunk));
+            afterCommit.accept(chunk);
+            afterId = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    private static int sizeOf(List<String> ids) {
+        return ids == null ? 0 : ids.size();
+    }
+}
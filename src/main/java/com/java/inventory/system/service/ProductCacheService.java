@@ -0,0 +1,259 @@
+package com.java.inventory.system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.model.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_CACHE;
+import static org.springframework.data.redis.cache.CacheKeyPrefix.SEPARATOR;
+
+/**
+ * Two-tier read-through cache for single products.
+ * <p>
+ * L1 is a bounded in-process Caffeine cache, L2 is the Redis "product" cache from {@code RedisConfig}.
+ * Writes evict both tiers and broadcast the id over Redis pub/sub so every replica drops its L1 entry.
+ * Redis being unavailable never fails a read, it just degrades to L1 + database.
+ * <p>
+ * Every eviction, local or received, leaves a short tombstone. A load that started before it may have read the row
+ * as it was before the write, so its result is returned but not cached. A load on this instance that filled Redis
+ * just before another instance's invalidation arrived is dropped from Redis again for the same reason.
+ */
+@Slf4j
+@Service
+public class ProductCacheService implements MessageListener {
+
+    // longer than any database load takes
+    private static final Duration TOMBSTONE_TTL = Duration.ofSeconds(10);
+
+    private final Cache<String, Product> l1;
+    // id -> System.nanoTime() of the last eviction
+    private final Cache<String, Long> tombstones = Caffeine.newBuilder()
+            .expireAfterWrite(TOMBSTONE_TTL)
+            .build();
+    // ids this instance loaded and wrote to Redis within the tombstone window
+    private final Cache<String, Boolean> recentFills = Caffeine.newBuilder()
+            .expireAfterWrite(TOMBSTONE_TTL)
+            .build();
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic invalidationTopic;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProductCacheService(CacheManager cacheManager,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               ChannelTopic productInvalidationTopic,
+                               @Value("${app.product-cache.l1.max-size:10000}") long maxSize,
+                               @Value("${app.product-cache.l1.ttl-seconds:60}") long ttlSeconds) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.invalidationTopic = productInvalidationTopic;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, invalidationTopic);
+    }
+
+    /**
+     * Returns the cached product, loading it through L2 and then {@code loader} on a miss.
+     */
+    public Optional<Product> get(String id, Supplier<Optional<Product>> loader) {
+        Product product = l1.getIfPresent(id);
+        if (product != null) {
+            l1Hits.increment();
+            return Optional.of(product);
+        }
+
+        product = getFromRedis(id);
+        if (product != null) {
+            l2Hits.increment();
+            l1.put(id, product);
+            return Optional.of(product);
+        }
+
+        misses.increment();
+        long loadStart = System.nanoTime();
+        Optional<Product> loaded = loader.get();
+        loaded.ifPresent(loadedProduct -> fill(loadedProduct, loadStart));
+        return loaded;
+    }
+
+    /**
+     * Bulk variant of {@link #get}: whatever is not in L1 or L2 is loaded with a single {@code loader} call.
+     * Ids that do not exist are missing from the result.
+     */
+    public Map<String, Product> getAll(Collection<String> ids, Function<Collection<String>, List<Product>> loader) {
+        Map<String, Product> found = new HashMap<>(l1.getAllPresent(ids));
+        l1Hits.add(found.size());
+
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (found.containsKey(id)) {
+                continue;
+            }
+            Product product = getFromRedis(id);
+            if (product != null) {
+                l2Hits.increment();
+                l1.put(id, product);
+                found.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            long loadStart = System.nanoTime();
+            for (Product product : loader.apply(missing)) {
+                fill(product, loadStart);
+                found.put(product.getId(), product);
+            }
+        }
+        return found;
+    }
+
+    public void put(Product product) {
+        l1.put(product.getId(), product);
+        try {
+            redisCache().put(product.getId(), product);
+        } catch (RuntimeException e) {
+            log.warn("Unable to write product [{}] to Redis cache: {}", product.getId(), e.getMessage());
+        }
+    }
+
+    // caches a loaded product unless it was evicted after the load started
+    private void fill(Product product, long loadStart) {
+        Long evictedAt = tombstones.getIfPresent(product.getId());
+        if (evictedAt != null && evictedAt - loadStart >= 0) {
+            log.debug("Product [{}] was written while it was loading, not caching it.", product.getId());
+            return;
+        }
+        recentFills.put(product.getId(), Boolean.TRUE);
+        put(product);
+    }
+
+    private void tombstone(Collection<String> ids) {
+        long now = System.nanoTime();
+        for (String id : ids) {
+            tombstones.put(id, now);
+        }
+    }
+
+    /**
+     * Drops the product from both tiers and tells the other replicas to drop their L1 copy.
+     */
+    public void evict(String id) {
+        evictions.increment();
+        tombstone(List.of(id));
+        l1.invalidate(id);
+        try {
+            redisCache().evict(id);
+            redisTemplate.convertAndSend(invalidationTopic.getTopic(), id);
+        } catch (RuntimeException e) {
+            log.warn("Unable to evict product [{}] from Redis cache: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #evict(String)} for set-based writes: one Redis DEL and one broadcast for the whole batch.
+     */
+    public void evictAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evictions.add(ids.size());
+        tombstone(ids);
+        l1.invalidateAll(ids);
+        try {
+            redisTemplate.delete(ids.stream().map(id -> PRODUCT_CACHE + SEPARATOR + id).toList());
+            redisTemplate.convertAndSend(invalidationTopic.getTopic(), String.join("\n", ids));
+        } catch (RuntimeException e) {
+            log.warn("Unable to evict {} products from Redis cache: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // one id per line, bulk writes send many ids in a single message
+        String[] ids = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        log.debug("Received invalidation for {} product(s)", ids.length);
+        List<String> invalidated = Arrays.asList(ids);
+        tombstone(invalidated);
+        l1.invalidateAll(invalidated);
+
+        // a load here may have read the old row and filled Redis after the writer evicted it
+        List<String> filled = invalidated.stream().filter(id -> recentFills.getIfPresent(id) != null).toList();
+        if (!filled.isEmpty()) {
+            recentFills.invalidateAll(filled);
+            try {
+                redisTemplate.delete(filled.stream().map(id -> PRODUCT_CACHE + SEPARATOR + id).toList());
+            } catch (RuntimeException e) {
+                log.warn("Unable to evict {} products from Redis cache: {}", filled.size(), e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long l1HitCount = l1Hits.sum();
+        long l2HitCount = l2Hits.sum();
+        long missCount = misses.sum();
+        long total = l1HitCount + l2HitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1Hits", l1HitCount);
+        stats.put("l2Hits", l2HitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) (l1HitCount + l2HitCount) / total);
+        stats.put("l1Size", l1.estimatedSize());
+        return stats;
+    }
+
+    private Product getFromRedis(String id) {
+        try {
+            return redisCache().get(id, Product.class);
+        } catch (RuntimeException e) {
+            log.warn("Unable to read product [{}] from Redis cache: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private org.springframework.cache.Cache redisCache() {
+        return cacheManager.getCache(PRODUCT_CACHE);
+    }
+}
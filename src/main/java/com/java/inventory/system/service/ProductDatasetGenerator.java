@@ -0,0 +1,236 @@
+package com.java.inventory.system.service;
+
+import com.github.javafaker.Faker;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.util.ProductIdGenerator;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic product data for capacity testing, from a thousand rows to tens of millions.
+ * <p>
+ * Rows are cut into blocks of {@code batchSize}. Worker threads claim blocks, build them and write each block with
+ * one multi-row {@code INSERT ... VALUES (...), (...)} over a pooled connection. Faker is far too slow to call per row
+ * at these volumes, so it only fills pools of names and descriptions up front. Pools and blocks draw from
+ * {@link Random}s seeded with the seed (and the block number), so a seed always produces the same names, categories,
+ * prices and quantities however the blocks are spread over threads. Only the ids are fresh, they come from
+ * {@link ProductIdGenerator} so the rows append to the primary key like real ones.
+ * <p>
+ * Categories follow a Zipf distribution: with skew 1 the first category gets about 4x the rows of the fifth.
+ * Item names carry the row number as a suffix so they stay unique at any volume.
+ */
+@Slf4j
+@Service
+public class ProductDatasetGenerator {
+
+    public static final List<String> CATEGORIES = List.of(
+            "Electronics", "Grocery", "Clothing", "Home", "Books", "Toys", "Health", "Beauty",
+            "Sports", "Computers", "Games", "Garden", "Tools", "Automotive", "Shoes", "Kids",
+            "Baby", "Movies", "Music", "Outdoors", "Jewelery", "Industrial");
+    private static final List<String> UNITS = List.of("Piece", "Box", "Kg", "Pack", "Bottle");
+
+    private static final String INSERT = "INSERT INTO product (id, item_name, description, category, unit_price, " +
+            "quantity, unit, item_name_key, category_key, version) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int COLUMNS = 9;
+    private static final int POOL_SIZE = 4096;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductIdGenerator productIdGenerator;
+
+    public ProductDatasetGenerator(DataSource dataSource, ProductIdGenerator productIdGenerator) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.productIdGenerator = productIdGenerator;
+    }
+
+    /**
+     * @param rows       rows to add
+     * @param threads    worker threads, each holds one pooled connection for the whole run
+     * @param batchSize  rows per INSERT statement (and per commit)
+     * @param seed       same seed, same data
+     * @param skew       Zipf exponent of the category distribution, 0 spreads rows evenly
+     * @param progressMs how often progress is logged
+     */
+    @Builder
+    public record Spec(long rows, int threads, int batchSize, long seed, double skew, long progressMs) {
+    }
+
+    public long countProducts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+
+    public Map<String, Object> generate(Spec spec) {
+        // numbering continues after the rows already there, so a second run does not collide on item names
+        long firstRow = countProducts();
+        long blocks = (spec.rows() + spec.batchSize() - 1) / spec.batchSize();
+        double[] categoryWeights = cumulativeZipf(CATEGORIES.size(), spec.skew());
+        Faker faker = new Faker(Locale.ENGLISH, new Random(spec.seed()));
+        Pools pools = new Pools(
+                fakerPool(() -> faker.commerce().productName()),
+                fakerPool(() -> faker.lorem().sentence()),
+                categoryWeights);
+        AtomicLong nextBlock = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+
+        log.info("Generating {} products ({} threads, {} rows per insert, seed {}, skew {}).",
+                spec.rows(), spec.threads(), spec.batchSize(), spec.seed(), spec.skew());
+        long start = System.nanoTime();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> logProgress(inserted.get(), spec.rows(), start),
+                spec.progressMs(), spec.progressMs(), TimeUnit.MILLISECONDS);
+        ExecutorService workers = Executors.newFixedThreadPool(spec.threads());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < spec.threads(); t++) {
+                futures.add(workers.submit(() -> {
+                    fill(spec, firstRow, blocks, pools, nextBlock, inserted);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Product generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Product generation failed after " + inserted.get() + " rows", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        long durationMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rowsPerSecond = inserted.get() * 1000.0 / durationMs;
+        log.info("Generated {} products in {} ms ({} rows/sec).",
+                inserted.get(), durationMs, String.format("%.1f", rowsPerSecond));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", inserted.get());
+        report.put("durationMs", durationMs);
+        report.put("rowsPerSecond", rowsPerSecond);
+        return report;
+    }
+
+    private void fill(Spec spec, long firstRow, long blocks, Pools pools,
+                      AtomicLong nextBlock, AtomicLong inserted) throws SQLException {
+        Random random = new Random();
+        Object[] values = new Object[spec.batchSize() * COLUMNS];
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement fullBatch = connection.prepareStatement(insertSql(spec.batchSize()))) {
+            connection.setAutoCommit(true);
+            long block;
+            while ((block = nextBlock.getAndIncrement()) < blocks) {
+                random.setSeed(spec.seed() * 1_000_003L + block);
+                long from = block * spec.batchSize();
+                int size = (int) Math.min(spec.batchSize(), spec.rows() - from);
+                for (int i = 0; i < size; i++) {
+                    fillRow(values, i * COLUMNS, firstRow + from + i, pools, random);
+                }
+
+                if (size == spec.batchSize()) {
+                    execute(fullBatch, values, size);
+                } else {
+                    try (PreparedStatement lastBatch = connection.prepareStatement(insertSql(size))) {
+                        execute(lastBatch, values, size);
+                    }
+                }
+                inserted.addAndGet(size);
+            }
+        }
+    }
+
+    private void fillRow(Object[] values, int offset, long rowNumber, Pools pools, Random random) {
+        String category = CATEGORIES.get(pick(pools.categoryWeights(), random.nextDouble()));
+        String itemName = pools.names()[random.nextInt(POOL_SIZE)] + " "
+                + Long.toString(rowNumber, 36).toUpperCase(Locale.ROOT);
+        values[offset] = productIdGenerator.generateId();
+        values[offset + 1] = itemName;
+        values[offset + 2] = pools.descriptions()[random.nextInt(POOL_SIZE)];
+        values[offset + 3] = category;
+        values[offset + 4] = BigDecimal.valueOf(1000 + random.nextInt(199_000), 2);
+        values[offset + 5] = 1 + random.nextInt(200);
+        values[offset + 6] = UNITS.get(random.nextInt(UNITS.size()));
+        values[offset + 7] = Product.key(itemName);
+        values[offset + 8] = Product.key(category);
+    }
+
+    private static void execute(PreparedStatement statement, Object[] values, int rows) throws SQLException {
+        for (int i = 0; i < rows * COLUMNS; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.executeUpdate();
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static String[] fakerPool(Supplier<String> faker) {
+        String[] pool = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = faker.get();
+        }
+        return pool;
+    }
+
+    static double[] cumulativeZipf(int n, double skew) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private record Pools(String[] names, String[] descriptions, double[] categoryWeights) {
+    }
+
+    private static void logProgress(long inserted, long total, long start) {
+        double seconds = Math.max(0.001, (System.nanoTime() - start) / 1e9);
+        double rate = inserted / seconds;
+        long etaSeconds = rate == 0 ? -1 : (long) ((total - inserted) / rate);
+        log.info("Generated {}/{} products ({}%), {} rows/sec, about {}s left.",
+                inserted, total, inserted * 100 / Math.max(1, total), (long) rate, etaSeconds);
+    }
+}
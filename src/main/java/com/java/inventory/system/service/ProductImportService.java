@@ -0,0 +1,365 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.java.inventory.system.dto.ProductImportReport;
+import com.java.inventory.system.dto.ProductImportReport.RowError;
+import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import com.java.inventory.system.util.CsvUtils;
+import com.java.inventory.system.util.ProductIdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.java.inventory.system.constant.ErrorConstants.INVENTORY_MS_PRODUCT_EXIST;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INVALID_IMPORT_FILE;
+
+/**
+ * Streaming bulk import of products from NDJSON or CSV.
+ * <p>
+ * The request body is read record by record (a line, or several for a CSV field with quoted line breaks), each row
+ * is validated against the {@link ProductRequest} constraints and collected into fixed-size chunks. Per chunk, rows
+ * with a new id are inserted and rows with an existing id are updated, one JDBC batch each in one transaction.
+ * Only the current chunk, the set of item names seen so far and a capped error list are held in memory.
+ * Importing the id of a deleted product that is not archived yet brings it back.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("id", "itemName", "description", "category", "unitPrice", "quantity", "unit");
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit, item_name_key,
+                category_key, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+    // by id only: a name taken by another product fails the row on the unique index instead of overwriting it
+    private static final String UPDATE_SQL = """
+            UPDATE product SET item_name = ?, description = ?, category = ?, unit_price = ?, quantity = ?, unit = ?,
+                item_name_key = ?, category_key = ?, version = version + 1, deleted_at = NULL
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchCache productSearchCache;
+    private final ProductStatsService productStatsService;
+    private final ProductQuantityBuffer productQuantityBuffer;
+    private final ProductIdGenerator productIdGenerator;
+    private final int chunkSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ProductRepository productRepository,
+                                ProductCacheService productCacheService,
+                                ProductSearchIndex productSearchIndex,
+                                ProductSearchCache productSearchCache,
+                                ProductStatsService productStatsService,
+                                ProductQuantityBuffer productQuantityBuffer,
+                                ProductIdGenerator productIdGenerator,
+                                @Value("${app.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(ProductRequest.class);
+        this.productRepository = productRepository;
+        this.productCacheService = productCacheService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSearchCache = productSearchCache;
+        this.productStatsService = productStatsService;
+        this.productQuantityBuffer = productQuantityBuffer;
+        this.productIdGenerator = productIdGenerator;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductImportReport importProducts(MediaType contentType, InputStream body) throws IOException {
+        boolean csv = contentType != null && contentType.isCompatibleWith(TEXT_CSV);
+        log.info("Starting bulk product import ({}, chunk size {}).", csv ? "CSV" : "NDJSON", chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return csv ? importCsv(reader) : importNdjson(reader);
+        }
+    }
+
+    private ProductImportReport importNdjson(BufferedReader reader) throws IOException {
+        return importRows(reader::readLine, 0, line -> ndjsonReader.readValue(line));
+    }
+
+    private ProductImportReport importCsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (StringUtils.isBlank(header)) {
+            throw new ProductSvcException(ERR_INVENTORY_MS_INVALID_IMPORT_FILE);
+        }
+        List<String> names = CsvUtils.parseLine(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new ProductSvcException(ERR_INVENTORY_MS_INVALID_IMPORT_FILE);
+        }
+
+        return importRows(() -> CsvUtils.readRecord(reader), 1, line -> {
+            List<String> fields = CsvUtils.parseLine(line);
+            ProductRequest request = new ProductRequest();
+            request.setId(field(fields, columns, "id"));
+            request.setItemName(field(fields, columns, "itemName"));
+            request.setDescription(field(fields, columns, "description"));
+            request.setCategory(field(fields, columns, "category"));
+            String unitPrice = field(fields, columns, "unitPrice");
+            request.setUnitPrice(StringUtils.isBlank(unitPrice) ? null : new BigDecimal(unitPrice.trim()));
+            String quantity = field(fields, columns, "quantity");
+            request.setQuantity(StringUtils.isBlank(quantity) ? null : Integer.valueOf(quantity.trim()));
+            request.setUnit(field(fields, columns, "unit"));
+            return request;
+        });
+    }
+
+    private ProductImportReport importRows(RecordReader records, long headerLines, RowParser parser) throws IOException {
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+        Set<String> seenNames = new HashSet<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        long lineNumber = headerLines;
+        String line;
+        while ((line = records.next()) != null) {
+            // errors point at the first line of a record, a quoted CSV field may span several
+            long recordLine = lineNumber + 1;
+            lineNumber += 1 + StringUtils.countMatches(line, '\n');
+            if (line.isBlank()) {
+                continue;
+            }
+            state.totalRows++;
+
+            ProductRequest request;
+            try {
+                request = parser.parse(line);
+            } catch (Exception e) {
+                state.reject(recordLine, null, List.of("Unparseable row: " + e.getMessage()));
+                continue;
+            }
+
+            List<String> violations = validate(request);
+            if (!violations.isEmpty()) {
+                state.reject(recordLine, request.getItemName(), violations);
+                continue;
+            }
+            if (!seenNames.add(Product.key(request.getItemName()))) {
+                state.reject(recordLine, request.getItemName(), List.of("itemName: duplicate item name in this file"));
+                continue;
+            }
+            if (StringUtils.isBlank(request.getId())) {
+                request.setId(productIdGenerator.generateId());
+            }
+
+            chunk.add(new PendingRow(recordLine, request));
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, state);
+                chunk.clear();
+            }
+        }
+        flush(chunk, state);
+
+        long durationMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rowsPerSecond = state.totalRows * 1000.0 / durationMs;
+        log.info("Bulk import finished: {} rows, {} imported, {} failed in {} ms ({} rows/sec).",
+                state.totalRows, state.imported, state.failed, durationMs, String.format("%.1f", rowsPerSecond));
+
+        return ProductImportReport.builder()
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .failed(state.failed)
+                .durationMs(durationMs)
+                .rowsPerSecond(rowsPerSecond)
+                .errors(state.errors)
+                .errorsTruncated(state.failed > state.errors.size())
+                .build();
+    }
+
+    private List<String> validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        List<String> messages = new ArrayList<>(violations.size());
+        for (ConstraintViolation<ProductRequest> violation : violations) {
+            messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        Collections.sort(messages);
+        return messages;
+    }
+
+    /**
+     * Writes one chunk: one lookup for names already owned by other ids and one for the ids that exist, then one
+     * batched INSERT for the new ids and one batched UPDATE for the others. If the batch fails the rows are retried
+     * one by one so the report can point at the offending lines.
+     */
+    private void flush(List<PendingRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> existingOwners = findNameOwners(chunk);
+        List<PendingRow> writable = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            String owner = existingOwners.get(Product.key(row.request().getItemName()));
+            if (owner != null && !owner.equals(row.request().getId())) {
+                state.reject(row.line(), row.request().getItemName(), List.of("itemName: " + INVENTORY_MS_PRODUCT_EXIST));
+            } else {
+                writable.add(row);
+            }
+        }
+
+        // imported quantities are absolute, buffered deltas must not land on top of them
+        List<String> writableIds = writable.stream().map(row -> row.request().getId()).toList();
+        productQuantityBuffer.flush(writableIds);
+        Set<String> existingIds = findExistingIds(writableIds);
+        List<PendingRow> inserts = writable.stream().filter(row -> !existingIds.contains(row.request().getId())).toList();
+        List<PendingRow> updates = writable.stream().filter(row -> existingIds.contains(row.request().getId())).toList();
+        List<PendingRow> written = new ArrayList<>(writable.size());
+        try {
+            int[] updated = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts.stream().map(this::toInsertParameters).toList());
+                return jdbcTemplate.batchUpdate(UPDATE_SQL, updates.stream().map(this::toUpdateParameters).toList());
+            });
+            written.addAll(inserts);
+            for (int i = 0; i < updates.size(); i++) {
+                // 0 when the product was purged after the lookup; SUCCESS_NO_INFO (-2) from rewritten batches is fine
+                if (updated[i] == 0) {
+                    rejectPurged(updates.get(i), state);
+                } else {
+                    written.add(updates.get(i));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Batch of {} rows failed ({}), retrying row by row.", writable.size(), e.getMessage());
+            written.clear();
+            for (PendingRow row : writable) {
+                boolean exists = existingIds.contains(row.request().getId());
+                try {
+                    Integer count = transactionTemplate.execute(status -> exists
+                            ? jdbcTemplate.update(UPDATE_SQL, toUpdateParameters(row))
+                            : jdbcTemplate.update(INSERT_SQL, toInsertParameters(row)));
+                    if (count != null && count == 0) {
+                        rejectPurged(row, state);
+                    } else {
+                        written.add(row);
+                    }
+                } catch (DataAccessException rowError) {
+                    state.reject(row.line(), row.request().getItemName(),
+                            List.of("Database rejected row: " + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        state.imported += written.size();
+        List<String> ids = written.stream().map(row -> row.request().getId()).toList();
+        productCacheService.evictAll(ids);
+        // re-read so the index carries the versions the writes assigned
+        List<Product> products = productRepository.findByIdIn(ids);
+        productSearchIndex.indexAll(products);
+        productStatsService.updateAll(products);
+        // an update may have moved a row out of a category we no longer know
+        productSearchCache.invalidateAll();
+    }
+
+    private static void rejectPurged(PendingRow row, ImportState state) {
+        state.reject(row.line(), row.request().getItemName(), List.of("id: product was removed during the import"));
+    }
+
+    // includes soft-deleted rows, importing their id brings them back
+    private Set<String> findExistingIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList("SELECT id FROM product WHERE id IN (:ids)",
+                Map.of("ids", ids), String.class));
+    }
+
+    private Map<String, String> findNameOwners(List<PendingRow> chunk) {
+        List<String> names = chunk.stream().map(row -> Product.key(row.request().getItemName())).toList();
+        Map<String, String> owners = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, item_name_key FROM product WHERE item_name_key IN (:names)",
+                Map.of("names", names),
+                rs -> {
+                    owners.put(rs.getString("item_name_key"), rs.getString("id"));
+                });
+        return owners;
+    }
+
+    private Object[] toInsertParameters(PendingRow row) {
+        ProductRequest r = row.request();
+        return new Object[]{r.getId(), r.getItemName(), r.getDescription(), r.getCategory(),
+                r.getUnitPrice(), r.getQuantity(), r.getUnit(), Product.key(r.getItemName()), Product.key(r.getCategory())};
+    }
+
+    private Object[] toUpdateParameters(PendingRow row) {
+        ProductRequest r = row.request();
+        return new Object[]{r.getItemName(), r.getDescription(), r.getCategory(), r.getUnitPrice(), r.getQuantity(),
+                r.getUnit(), Product.key(r.getItemName()), Product.key(r.getCategory()), r.getId()};
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    @FunctionalInterface
+    private interface RecordReader {
+        String next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        ProductRequest parse(String line) throws Exception;
+    }
+
+    private record PendingRow(long line, ProductRequest request) {
+    }
+
+    private static class ImportState {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void reject(long line, String itemName, List<String> messages) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, itemName, messages));
+            }
+        }
+    }
+}
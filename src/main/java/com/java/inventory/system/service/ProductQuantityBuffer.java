@@ -0,0 +1,331 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.config.ReplicaRoutingDataSource;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INSUFFICIENT_STOCK;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_NO_PRODUCT_FOUND;
+
+/**
+ * Write-behind mode for stock movements ({@code app.stock.write-behind.enabled}).
+ * <p>
+ * Each product touched since the last flush has one {@link AtomicLong} packing the quantity last written to the
+ * database (high 32 bits) and the sum of the deltas accepted since (low 32 bits). Accepting a delta is a single CAS
+ * that also checks the result stays at or above zero, so concurrent scanners never block each other. Reads add the
+ * pending delta through {@link #apply(Product)}.
+ * <p>
+ * A flush writes one {@code quantity = quantity + delta} per product, however many deltas were coalesced into it,
+ * every {@code flush-ms}, whenever {@code max-pending} deltas have piled up, and on shutdown. Flushed entries are
+ * dropped so the next delta starts from a fresh read of the row.
+ * <p>
+ * The base is only what this instance read, so the non-negative check here does not see deltas other instances
+ * have accepted for the same product, nor an absolute quantity they wrote. The database keeps the same guard and is
+ * the one that counts. A coalesced delta it refuses (product deleted, or the stock went elsewhere meanwhile) was
+ * already confirmed to the callers, so it is not dropped: it is logged as an error and kept, summed per product,
+ * under {@code refused} in {@link #getStats()} until the stock is reconciled by hand.
+ */
+@Slf4j
+@Service
+public class ProductQuantityBuffer {
+
+    private static final String FLUSH_SQL =
+            "UPDATE product SET quantity = quantity + ?, version = version + 1 " +
+            "WHERE id = ? AND quantity + ? >= 0 AND deleted_at IS NULL";
+    // a flushed entry nobody wrote to since, adjust() replaces it
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTx;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchCache productSearchCache;
+    private final ProductStatsService productStatsService;
+    private final boolean enabled;
+    private final int maxPending;
+
+    private final Map<String, AtomicLong> entries = new ConcurrentHashMap<>();
+    // deltas accepted and not written yet, in total and per product
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private final Map<String, Integer> pendingDeltasById = new ConcurrentHashMap<>();
+    // deltas the database refused, per product, for reconciliation
+    private final Map<String, Integer> refused = new ConcurrentHashMap<>();
+    // bumped whenever an entry is dropped, a base loaded across a drop may predate the flush and is read again
+    private final AtomicLong retirements = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-quantity-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder refusedDeltas = new LongAdder();
+
+    public ProductQuantityBuffer(ProductRepository productRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ProductCacheService productCacheService,
+                                 ProductSearchIndex productSearchIndex,
+                                 ProductSearchCache productSearchCache,
+                                 ProductStatsService productStatsService,
+                                 @Value("${app.stock.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${app.stock.write-behind.max-pending:5000}") int maxPending) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // a flush must commit even when called from inside another write that later rolls back
+        this.flushTx = new TransactionTemplate(transactionManager);
+        this.flushTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.productCacheService = productCacheService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSearchCache = productSearchCache;
+        this.productStatsService = productStatsService;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts {@code delta} for the product and returns its quantity including every pending delta.
+     */
+    public int adjust(String id, int delta) {
+        while (true) {
+            AtomicLong entry = entry(id);
+            if (entry == null) {
+                continue;
+            }
+            long state = entry.get();
+            if (state == RETIRED) {
+                entries.remove(id, entry);
+                continue;
+            }
+            long quantity = (long) base(state) + pending(state) + delta;
+            if (quantity < 0) {
+                throw new ProductSvcException(id, ERR_INVENTORY_MS_INSUFFICIENT_STOCK);
+            }
+            long pending = (long) pending(state) + delta;
+            if (pending != (int) pending) {
+                flush(List.of(id)); // absurdly large backlog for one product, write it out and start over
+                continue;
+            }
+            if (entry.compareAndSet(state, pack(base(state), (int) pending))) {
+                accepted.increment();
+                pendingDeltasById.merge(id, 1, Integer::sum);
+                if (pendingDeltas.incrementAndGet() >= maxPending) {
+                    requestFlush();
+                }
+                return (int) quantity;
+            }
+        }
+    }
+
+    /**
+     * The product with its pending delta applied, the same instance when nothing is pending.
+     */
+    public Product apply(Product product) {
+        Integer quantity = bufferedQuantity(product.getId());
+        if (quantity == null) {
+            return product;
+        }
+        return product.toBuilder().quantity(quantity).build();
+    }
+
+    public ProductView apply(ProductView view) {
+        Integer quantity = bufferedQuantity(view.id());
+        return quantity == null ? view : view.withQuantity(quantity);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.write-behind.flush-ms:1000}")
+    public void flush() {
+        flush(entries.keySet());
+    }
+
+    /**
+     * Writes the pending deltas of the given products. Writers that set an absolute quantity call this first,
+     * so deltas a client already saw are not applied on top of the value it sends.
+     */
+    public synchronized void flush(Collection<String> ids) {
+        List<String> flushed = new ArrayList<>();
+        List<Integer> deltas = new ArrayList<>();
+        int settled = 0;
+        for (String id : List.copyOf(ids)) {
+            AtomicLong entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            long state = entry.get();
+            if (state == RETIRED) {
+                continue;
+            }
+            Integer count = pendingDeltasById.remove(id);
+            settled += count == null ? 0 : count;
+            if (pending(state) == 0) {
+                retire(id, entry);
+                continue;
+            }
+            flushed.add(id);
+            deltas.add(pending(state));
+        }
+        // only what this call takes out, deltas of products it does not write still count towards max-pending
+        pendingDeltas.addAndGet(-settled);
+        if (flushed.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(flushed.size());
+        for (int i = 0; i < flushed.size(); i++) {
+            args.add(new Object[]{deltas.get(i), flushed.get(i), deltas.get(i)});
+        }
+        int[] counts = flushTx.execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+
+        for (int i = 0; i < flushed.size(); i++) {
+            String id = flushed.get(i);
+            int delta = deltas.get(i);
+            AtomicLong entry = entries.get(id);
+            // SUCCESS_NO_INFO: the driver rewrote the batch and did not report per-row counts
+            boolean written = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            if (written) {
+                rowsWritten.increment();
+            } else {
+                refusedDeltas.increment();
+                refused.merge(id, delta, Integer::sum);
+                log.error("The database refused pending quantity delta {} of product [{}] that was already accepted, "
+                        + "kept for reconciliation.", delta, id);
+            }
+            entry.updateAndGet(state -> pack(written ? base(state) + delta : base(state), pending(state) - delta));
+            retire(id, entry);
+        }
+        flushes.increment();
+
+        productCacheService.evictAll(flushed);
+        List<Product> products = productRepository.findByIdIn(flushed);
+        productSearchIndex.indexAll(products);
+        productStatsService.updateAll(products);
+        productSearchCache.invalidate(products.stream().map(Product::getCategory).toList());
+        log.debug("Flushed {} coalesced quantity updates.", flushed.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flusher.shutdownNow();
+        if (!entries.isEmpty()) {
+            log.info("Flushing {} buffered quantity updates before shutdown.", entries.size());
+            flush();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("acceptedDeltas", accepted.sum());
+        stats.put("rowsWritten", rowsWritten.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("pendingDeltas", pendingDeltas.get());
+        stats.put("refusedDeltas", refusedDeltas.sum());
+        stats.put("refused", Map.copyOf(refused));
+        stats.put("bufferedProducts", entries.size());
+        return stats;
+    }
+
+    private Integer bufferedQuantity(String id) {
+        AtomicLong entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        long state = entry.get();
+        return state == RETIRED || pending(state) == 0 ? null : base(state) + pending(state);
+    }
+
+    /**
+     * The entry of the product, loading its base first when there is none. The row is read outside the map so the
+     * query does not hold a bin lock; null when an entry was dropped meanwhile and the read may be stale.
+     */
+    private AtomicLong entry(String id) {
+        AtomicLong entry = entries.get(id);
+        if (entry != null) {
+            return entry;
+        }
+        long retired = retirements.get();
+        AtomicLong loaded = load(id);
+        if (retirements.get() != retired) {
+            return null;
+        }
+        entry = entries.putIfAbsent(id, loaded);
+        return entry == null ? loaded : entry;
+    }
+
+    private AtomicLong load(String id) {
+        // the base must be the committed row, a lagging replica would hand out stock that is already gone
+        Product product = ReplicaRoutingDataSource.onPrimary(() -> productRepository.findById(id))
+                .orElseThrow(() -> new ProductSvcException(id, ERR_INVENTORY_MS_NO_PRODUCT_FOUND));
+        return new AtomicLong(pack(product.getQuantity(), 0));
+    }
+
+    private void retire(String id, AtomicLong entry) {
+        long state = entry.get();
+        if (state != RETIRED && pending(state) == 0 && entry.compareAndSet(state, RETIRED)) {
+            entries.remove(id, entry);
+            retirements.incrementAndGet();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    log.error("Quantity flush failed, retrying on the next tick.", e);
+                }
+            });
+        }
+    }
+
+    private static long pack(int base, int pending) {
+        return ((long) base << 32) | (pending & 0xFFFFFFFFL);
+    }
+
+    private static int base(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int pending(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,211 @@
+package com.java.inventory.system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_SEARCH_INVALIDATION_CHANNEL;
+
+/**
+ * Result cache for the SQL product search.
+ * <p>
+ * It is only the fallback of {@link ProductService#findByItemNameAndCategory}: searches the in-memory
+ * {@link ProductSearchIndex} can answer never reach it. It fills while the index is disabled or still warming up and
+ * for sorts the index does not support, so {@code app.search.result-cache.max-size} is sized for those queries, not
+ * for the whole search traffic.
+ * <p>
+ * An entry is the ordered id list and total of one normalized (name, category, page, size, sort) query; the products
+ * themselves are hydrated from {@link ProductCacheService}, so a repeated search touches neither table nor count.
+ * <p>
+ * Entries are never deleted on writes. Every category key has a generation counter, and a search filtered by
+ * category remembers that category's generation while an unfiltered search remembers the generation of all
+ * categories. A write bumps the generation of the categories it touched (and of "all"), after which the old entries
+ * simply stop matching. Bumps are broadcast over Redis pub/sub so other instances drop their results too.
+ */
+@Slf4j
+@Service
+public class ProductSearchCache implements MessageListener {
+
+    private static final String ALL = "";
+    private static final String EVERYTHING = "*";
+
+    private final Cache<SearchKey, Entry> results;
+    private final ProductCacheService productCacheService;
+    private final ProductRepository productRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic invalidationTopic = new ChannelTopic(PRODUCT_SEARCH_INVALIDATION_CHANNEL);
+    private final boolean enabled;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    // bumped by invalidateAll(), part of every stamp
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductSearchCache(ProductCacheService productCacheService,
+                              ProductRepository productRepository,
+                              StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              @Value("${app.search.result-cache.enabled:true}") boolean enabled,
+                              @Value("${app.search.result-cache.max-size:500}") long maxSize,
+                              @Value("${app.search.result-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.productCacheService = productCacheService;
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, invalidationTopic);
+    }
+
+    /**
+     * Returns the cached page for this query, or runs {@code query} and remembers its ids.
+     */
+    public Page<ProductView> search(String itemName, String category, Pageable pageable,
+                                    Supplier<Page<ProductView>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        SearchKey key = new SearchKey(Objects.toString(Product.key(itemName), ""), Product.key(category),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        // taken before the query runs, a write committing meanwhile bumps past it and the entry is born stale
+        Stamp stamp = stamp(key.category());
+
+        Entry entry = results.getIfPresent(key);
+        if (entry != null && entry.stamp().equals(stamp)) {
+            List<ProductView> content = hydrate(entry.ids());
+            if (content != null) {
+                hits.increment();
+                return new PageImpl<>(content, pageable, entry.total());
+            }
+        }
+
+        misses.increment();
+        Page<ProductView> page = query.get();
+        results.put(key, new Entry(page.getContent().stream().map(ProductView::id).toList(), page.getTotalElements(),
+                stamp));
+        return page;
+    }
+
+    /**
+     * Call after the write has committed with every category the write touched, old and new.
+     */
+    public void invalidate(Collection<String> categories) {
+        List<String> keys = categories.stream().map(Product::key).filter(Objects::nonNull).distinct().toList();
+        bump(keys);
+        publish(String.join("\n", keys));
+    }
+
+    /**
+     * For writes whose categories are not known without another read (bulk statements, imports).
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        publish(EVERYTHING);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.equals(EVERYTHING)) {
+            epoch.incrementAndGet();
+        } else {
+            bump(List.of(body.split("\n")));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("size", results.estimatedSize());
+        return stats;
+    }
+
+    private void bump(Collection<String> categoryKeys) {
+        categoryKeys.forEach(key -> generation(key).incrementAndGet());
+        generation(ALL).incrementAndGet();
+    }
+
+    private Stamp stamp(String categoryKey) {
+        return new Stamp(epoch.get(), generation(categoryKey == null ? ALL : categoryKey).get());
+    }
+
+    private AtomicLong generation(String categoryKey) {
+        return generations.computeIfAbsent(categoryKey, k -> new AtomicLong());
+    }
+
+    /**
+     * Products in the cached order, {@code null} if one of them is gone.
+     */
+    private List<ProductView> hydrate(List<String> ids) {
+        Map<String, Product> products = productCacheService.getAll(ids, productRepository::findByIdIn);
+        List<ProductView> content = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Product product = products.get(id);
+            if (product == null) {
+                return null;
+            }
+            content.add(ProductView.of(product));
+        }
+        return content;
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(invalidationTopic.getTopic(), message);
+        } catch (RuntimeException e) {
+            log.warn("Unable to broadcast search cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private record SearchKey(String itemName, String category, int page, int size, String sort) {
+    }
+
+    private record Stamp(long epoch, long generation) {
+    }
+
+    private record Entry(List<String> ids, long total, Stamp stamp) {
+    }
+}
@@ -0,0 +1,484 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.dto.ProductFacets;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_INDEX_CHANNEL;
+
+/**
+ * In-memory trigram inverted index over product name and description.
+ * <p>
+ * Built at startup from a streaming scan of the product table and then kept current by the writers on every
+ * create/update/delete. Each change is also broadcast over Redis pub/sub, so every instance applies the writes
+ * of the others; a change carrying an older version than the one indexed is ignored, and a removed id is not brought
+ * back by a late change (ids are never reused). Pub/sub does not redeliver what an instance missed while it was
+ * disconnected, so the scan runs again every {@code app.search.index.rebuild-ms} and drops whatever it no longer
+ * finds, which bounds how stale an instance can get. Until the first build finishes {@link #isReady()} is false and
+ * callers are expected to fall back to SQL.
+ * <ul>
+ *     <li>substring search: intersect the postings of the query trigrams, then verify with {@code contains}
+ *     on the item name, which gives the same results as the SQL {@code LIKE} search</li>
+ *     <li>fuzzy search: rank every product sharing a trigram with the query by the fraction of query
+ *     trigrams it contains (name and description), tolerating typos</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ProductSearchIndex implements MessageListener {
+
+    private static final int GRAM = 3;
+    private static final Set<String> SORTABLE = Set.of("id", "itemName", "category", "unitPrice", "quantity", "unit");
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final double fuzzyThreshold;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic changeTopic = new ChannelTopic(PRODUCT_INDEX_CHANNEL);
+    // tells our own broadcasts apart from the other instances'
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Map<String, Product> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    // facet counts over the whole catalog, kept current by every local and replicated index()/remove() and corrected by
+    // the periodic rebuild, so an unfiltered search never scans and every instance reports the same counts
+    private final Map<String, Long> categoryCounts = new ConcurrentHashMap<>();
+    private final Map<String, Long> unitCounts = new ConcurrentHashMap<>();
+
+    // ids written through index()/remove() while the startup scan is running, the scan must not overwrite them
+    private final Set<String> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    // recently removed ids, a change from another instance that raced the delete must not index them again
+    private final Cache<String, Boolean> removed = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.search.index.enabled:true}") boolean enabled,
+                              @Value("${app.search.index.fuzzy-threshold:0.5}") double fuzzyThreshold,
+                              StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.fuzzyThreshold = fuzzyThreshold;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * One broadcast: the products written and the ids removed by a single write.
+     */
+    record IndexChange(String origin, List<ProductView> changed, List<String> removed) {
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            listenerContainer.addMessageListener(this, changeTopic);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Product search index disabled, searches will use SQL.");
+            return;
+        }
+        Thread builder = new Thread(this::rebuild, "product-search-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Catches up with changes this instance missed, see the class comment.
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild-ms:900000}",
+            initialDelayString = "${app.search.index.rebuild-ms:900000}")
+    public void refresh() {
+        if (enabled && ready && !building) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams the product table into the index and drops the documents the scan did not find. Entities are detached
+     * as they are read so the persistence context stays empty no matter how large the catalog is.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            Set<String> scanned = new HashSet<>();
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAll()) {
+                    for (Iterator<Product> it = products.iterator(); it.hasNext(); ) {
+                        Product product = it.next();
+                        entityManager.detach(product);
+                        index(product, false);
+                        scanned.add(product.getId());
+                    }
+                }
+            });
+            long dropped = 0;
+            for (String id : List.copyOf(documents.keySet())) {
+                if (!scanned.contains(id) && !touchedDuringBuild.contains(id)) {
+                    removeLocally(id);
+                    dropped++;
+                }
+            }
+            ready = true;
+            log.info("Product search index built: {} products, {} trigrams, {} stale dropped in {} ms.",
+                    scanned.size(), postings.size(), dropped, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build product search index, searches will keep using SQL.", e);
+        } finally {
+            building = false;
+            touchedDuringBuild.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product product) {
+        indexAll(List.of(product));
+    }
+
+    /**
+     * Indexes the committed state of the products here and on every other instance, with one broadcast.
+     */
+    public void indexAll(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        products.forEach(product -> index(product, true));
+        broadcast(new IndexChange(origin, products.stream().map(ProductSearchIndex::toView).toList(), List.of()));
+    }
+
+    public void remove(String id) {
+        removeAll(List.of(id));
+    }
+
+    public void removeAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(this::removeLocally);
+        broadcast(new IndexChange(origin, List.of(), List.copyOf(ids)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        IndexChange change;
+        try {
+            change = objectMapper.readValue(message.getBody(), IndexChange.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable search index change: {}", e.getMessage());
+            return;
+        }
+        if (origin.equals(change.origin())) {
+            return;
+        }
+        change.removed().forEach(this::removeLocally);
+        for (ProductView view : change.changed()) {
+            if (removed.getIfPresent(view.id()) == null) {
+                index(toProduct(view), true);
+            }
+        }
+    }
+
+    /**
+     * Counts per category and unit of the products whose name contains {@code itemName}.
+     */
+    public ProductFacets facets(String itemName) {
+        String query = normalize(itemName);
+        if (query.isEmpty()) {
+            return new ProductFacets(new TreeMap<>(categoryCounts), new TreeMap<>(unitCounts));
+        }
+
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> units = new TreeMap<>();
+        for (String id : substringCandidates(query)) {
+            Product product = documents.get(id);
+            if (product != null && normalize(product.getItemName()).contains(query)) {
+                increment(categories, product.getCategory(), 1);
+                increment(units, product.getUnit(), 1);
+            }
+        }
+        return new ProductFacets(categories, units);
+    }
+
+    /**
+     * Substring search on item name with optional category filter, same semantics as
+     * {@code ProductRepository.findByItemNameAndCategory}.
+     */
+    public Page<Product> search(String itemName, String category, Pageable pageable) {
+        String query = normalize(itemName);
+        List<Product> matches = new ArrayList<>();
+
+        for (String id : substringCandidates(query)) {
+            Product product = documents.get(id);
+            if (product != null && normalize(product.getItemName()).contains(query)
+                    && matchesCategory(product, category)) {
+                matches.add(product);
+            }
+        }
+
+        matches.sort(comparator(pageable.getSort()));
+        return page(matches, pageable);
+    }
+
+    /**
+     * Typo tolerant search over name and description, ranked by trigram similarity (best first).
+     */
+    public Page<Product> fuzzySearch(String text, String category, Pageable pageable) {
+        Set<String> queryGrams = trigrams(normalize(text));
+        if (queryGrams.isEmpty()) {
+            return search(text, category, pageable);
+        }
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String id : postings.getOrDefault(gram, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<Product, Double>> ranked = new ArrayList<>();
+        shared.forEach((id, count) -> {
+            double score = (double) count / queryGrams.size();
+            Product product = documents.get(id);
+            if (product != null && score >= fuzzyThreshold && matchesCategory(product, category)) {
+                ranked.add(Map.entry(product, score));
+            }
+        });
+
+        ranked.sort(Map.Entry.<Product, Double>comparingByValue().reversed()
+                .thenComparing(e -> normalize(e.getKey().getItemName())));
+        return page(ranked.stream().map(Map.Entry::getKey).toList(), pageable);
+    }
+
+    /**
+     * True when the index can honour the requested sort, otherwise the caller should use SQL.
+     */
+    public boolean supportsSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    private synchronized void removeLocally(String id) {
+        if (building) {
+            touchedDuringBuild.add(id);
+        }
+        removed.put(id, Boolean.TRUE);
+        Product previous = documents.remove(id);
+        if (previous != null) {
+            removePostings(id, previous);
+            count(previous, -1);
+        }
+    }
+
+    private synchronized void index(Product product, boolean incremental) {
+        if (incremental && building) {
+            touchedDuringBuild.add(product.getId());
+        } else if (!incremental && touchedDuringBuild.contains(product.getId())) {
+            // written after the scan read it, the incremental copy is newer
+            return;
+        }
+        Product snapshot = copyOf(product);
+        Product current = documents.get(snapshot.getId());
+        if (current != null && current.getVersion() != null && snapshot.getVersion() != null
+                && current.getVersion() > snapshot.getVersion()) {
+            return; // a slower writer's or another instance's older state, the newer one is already indexed
+        }
+        Product previous = documents.put(snapshot.getId(), snapshot);
+        if (previous != null) {
+            removePostings(snapshot.getId(), previous);
+            count(previous, -1);
+        }
+        count(snapshot, 1);
+        for (String gram : trigrams(searchableText(snapshot))) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+        }
+    }
+
+    private void removePostings(String id, Product product) {
+        for (String gram : trigrams(searchableText(product))) {
+            Set<String> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void count(Product product, long delta) {
+        increment(categoryCounts, product.getCategory(), delta);
+        increment(unitCounts, product.getUnit(), delta);
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long delta) {
+        if (key != null) {
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private Collection<String> substringCandidates(String query) {
+        if (query.length() < GRAM) {
+            // too short to produce a trigram, scan the documents (still in memory)
+            return documents.keySet();
+        }
+        Set<String> candidates = null;
+        for (String gram : trigrams(query)) {
+            Set<String> ids = postings.getOrDefault(gram, Set.of());
+            if (candidates == null) {
+                candidates = new HashSet<>(ids);
+            } else {
+                candidates.retainAll(ids);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates == null ? Set.of() : candidates;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String searchableText(Product product) {
+        return normalize(product.getItemName()) + " " + normalize(product.getDescription());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? StringUtils.EMPTY : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matchesCategory(Product product, String category) {
+        return StringUtils.isBlank(category) || category.equalsIgnoreCase(product.getCategory());
+    }
+
+    private static Page<Product> page(List<Product> matches, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches);
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    private static Comparator<Product> comparator(Sort sort) {
+        Comparator<Product> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Product> next = switch (order.getProperty()) {
+                case "itemName" -> Comparator.comparing(Product::getItemName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "category" -> Comparator.comparing(Product::getCategory, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "unit" -> Comparator.comparing(Product::getUnit, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "unitPrice" -> Comparator.comparing(Product::getUnitPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "quantity" -> Comparator.comparingInt(Product::getQuantity);
+                default -> Comparator.comparing(Product::getId);
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        // id as the final tie breaker keeps pages stable
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private void broadcast(IndexChange change) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(changeTopic.getTopic(), objectMapper.writeValueAsString(change));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to broadcast search index change, other instances catch up on their next rebuild: {}",
+                    e.getMessage());
+        }
+    }
+
+    private static ProductView toView(Product product) {
+        return new ProductView(product.getId(), product.getItemName(), product.getDescription(),
+                product.getCategory(), product.getUnitPrice(), product.getQuantity(), product.getUnit(),
+                product.getVersion() == null ? 0 : product.getVersion());
+    }
+
+    private static Product toProduct(ProductView view) {
+        return Product.builder()
+                .id(view.id())
+                .itemName(view.itemName())
+                .description(view.description())
+                .category(view.category())
+                .unitPrice(view.unitPrice())
+                .quantity(view.quantity())
+                .unit(view.unit())
+                .version(view.version())
+                .build();
+    }
+
+    private static Product copyOf(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .itemName(product.getItemName())
+                .description(product.getDescription())
+                .category(product.getCategory())
+                .unitPrice(product.getUnitPrice())
+                .quantity(product.getQuantity())
+                .unit(product.getUnit())
+                .version(product.getVersion())
+                .build();
+    }
+}
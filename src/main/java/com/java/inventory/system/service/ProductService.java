@@ -1,21 +1,37 @@
 package com.java.inventory.system.service;
 
+import com.java.inventory.system.config.ReplicaRoutingDataSource;
+import com.java.inventory.system.dto.ProductFacets;
+import com.java.inventory.system.dto.ProductPage;
 import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.dto.ProductView;
 import com.java.inventory.system.exception.ProductSvcException;
-import com.java.inventory.system.exception.errortypes.NVentSvcErrorType;
 import com.java.inventory.system.model.Product;
 import com.java.inventory.system.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.java.inventory.system.util.ETagUtils;
+import com.java.inventory.system.util.ProductCursor;
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_NO_PRODUCT_FOUND;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_PRECONDITION_FAILED;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_PRODUCT_EXIST;
 
 @Slf4j
 @Service
@@ -23,12 +39,19 @@ import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.E
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchCache productSearchCache;
+    private final ProductIdGenerator productIdGenerator;
+    private final ProductQuantityBuffer productQuantityBuffer;
+    private final ProductStatsService productStatsService;
 
-    public Map<String, Object> getAllProducts(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public ProductPage getAllProducts(Pageable pageable) {
         log.info("Fetching products from database (page={}, size={})...", pageable.getPageNumber(), pageable.getPageSize());
-        Page<Product> page = productRepository.findAll(pageable);
+        Page<ProductView> page = productRepository.findAllViews(pageable).map(productQuantityBuffer::apply);
 
-        Map<String, Object> response = buildResponse(page);
+        ProductPage response = ProductPage.of(page);
 
         log.info("Products retrieved successfully: {} items on this page, {} total.",
                 page.getNumberOfElements(), page.getTotalElements());
@@ -36,13 +59,21 @@ public class ProductService {
         return response;
     }
 
-    public Map<String, Object> findByItemNameAndCategory(String productName, String category, Pageable pageable) {
+    // no surrounding transaction, a cache hit must not even borrow a connection
+    public ProductPage findByItemNameAndCategory(String productName, String category, Pageable pageable) {
         log.info("Searching products from database (name={}, category={}, page={}, size={})...",
                 productName, category, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Product> page = productRepository.findByItemNameAndCategory(productName, category, pageable);
+        Page<ProductView> page;
+        if (productSearchIndex.isReady() && productSearchIndex.supportsSort(pageable.getSort())) {
+            page = productSearchIndex.search(productName, category, pageable).map(ProductView::of);
+        } else {
+            page = productSearchCache.search(productName, category, pageable,
+                    () -> productRepository.findByItemNameAndCategory(productName, category, pageable));
+        }
+        page = page.map(productQuantityBuffer::apply);
 
-        Map<String, Object> response = buildResponse(page);
+        ProductPage response = ProductPage.of(page);
 
         log.info("Search completed: {} items on this page, {} total.",
                 page.getNumberOfElements(), page.getTotalElements());
@@ -51,31 +82,100 @@ public class ProductService {
     }
 
     /**
-     * Helper method to build the response map, reducing code duplication.
+     * Category and unit counts for the name filter, from the search index when warm, otherwise one grouped query.
      */
-    private Map<String, Object> buildResponse(Page<Product> page) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", page.getContent());
-        response.put("currentPage", page.getNumber());
-        response.put("totalItems", page.getTotalElements());
-        response.put("totalPages", page.getTotalPages());
-        return response;
+    @Transactional(readOnly = true)
+    public ProductFacets getFacets(String productName) {
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.facets(productName);
+        }
+        log.info("Counting product facets from database (name={})...", productName);
+        return ProductFacets.of(productRepository.countByCategoryAndUnit(productName));
+    }
+
+    /**
+     * Typo tolerant search ranked by similarity, only available once the search index is warm.
+     * Until then it degrades to the regular substring search.
+     */
+    public ProductPage fuzzySearch(String text, String category, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            log.info("Search index not warm yet, using SQL substring search for [{}].", text);
+            return findByItemNameAndCategory(text, category, pageable);
+        }
+        log.info("Fuzzy searching products (text={}, category={}, page={}, size={})...",
+                text, category, pageable.getPageNumber(), pageable.getPageSize());
+        return ProductPage.of(productSearchIndex.fuzzySearch(text, category, pageable)
+                .map(ProductView::of)
+                .map(productQuantityBuffer::apply));
+    }
+
+    /**
+     * Cursor mode of {@link #getAllProducts}: seeks past the (itemName, id) in {@code after}
+     * instead of skipping rows, and never runs a COUNT.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage getAllProductsAfter(String after, int size) {
+        ProductCursor cursor = ProductCursor.decode(after);
+        log.info("Fetching products from database (after={}, size={})...", cursor.id(), size);
+
+        List<ProductView> rows = productRepository.findPageAfter(cursor.itemName(), cursor.id(), Limit.of(size + 1));
+
+        return buildCursorResponse(rows, size);
+    }
+
+    /**
+     * Cursor mode of {@link #findByItemNameAndCategory}.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage findByItemNameAndCategoryAfter(String productName, String category, String after, int size) {
+        ProductCursor cursor = ProductCursor.decode(after);
+        log.info("Searching products from database (name={}, category={}, after={}, size={})...",
+                productName, category, cursor.id(), size);
+
+        List<ProductView> rows = productRepository.findByItemNameAndCategoryAfter(
+                productName, category, cursor.itemName(), cursor.id(), Limit.of(size + 1));
+
+        return buildCursorResponse(rows, size);
     }
 
+    /**
+     * Rows were fetched with one extra element, its presence tells us there is a next page.
+     */
+    private ProductPage buildCursorResponse(List<ProductView> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<ProductView> content = (hasNext ? rows.subList(0, size) : rows).stream()
+                .map(productQuantityBuffer::apply)
+                .toList();
+        return ProductPage.ofCursor(content, hasNext,
+                hasNext ? ProductCursor.of(content.get(content.size() - 1)).encode() : null);
+    }
+
+    /**
+     * The cached row with any quantity change still waiting in {@link ProductQuantityBuffer} applied.
+     */
     public Product getProductById(String id) {
-        log.info("Fetching product ID [{}] from database...", id);
-        return productRepository.findById(id)
+        return productCacheService.get(id, () -> {
+                    log.info("Fetching product ID [{}] from database...", id);
+                    // cached for minutes, so never fill it from a replica that may not have the last write yet
+                    return ReplicaRoutingDataSource.onPrimary(() -> productRepository.findById(id));
+                })
+                .map(productQuantityBuffer::apply)
                 .orElseThrow(() -> new ProductSvcException(ERR_INVENTORY_MS_NO_PRODUCT_FOUND));
     }
 
-    public Product createProduct(ProductRequest request) throws ProductSvcException {
-        productRepository.findByItemName(request.getItemName())
-                .ifPresent(p -> {
-                    throw new ProductSvcException(NVentSvcErrorType.ERR_INVENTORY_MS_PRODUCT_EXIST);
-                });
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(productCacheService.getStats());
+        stats.put("search", productSearchCache.getStats());
+        stats.put("quantityBuffer", productQuantityBuffer.getStats());
+        return stats;
+    }
 
+    /**
+     * One INSERT: the unique indexes on id and item_name_key reject duplicates, no lookup beforehand.
+     */
+    public Product createProduct(ProductRequest request) throws ProductSvcException {
         Product newProduct = Product.builder()
-                .id(request.getId())
+                .id(StringUtils.isBlank(request.getId()) ? productIdGenerator.generateId() : request.getId())
                 .itemName(request.getItemName())
                 .description(request.getDescription())
                 .category(request.getCategory())
@@ -85,33 +185,56 @@ public class ProductService {
                 .build();
 
         log.info("Creating new product [{}].", request.getItemName());
-        Product savedProduct = productRepository.save(newProduct);
+        Product savedProduct;
+        try {
+            // no version yet, so save() persists instead of merging and skips the SELECT by id
+            savedProduct = productRepository.saveAndFlush(newProduct);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Product [{}] already exists.", request.getItemName());
+            throw new ProductSvcException(ERR_INVENTORY_MS_PRODUCT_EXIST, e);
+        }
+        productSearchIndex.index(savedProduct);
+        productStatsService.update(savedProduct);
+        productSearchCache.invalidate(List.of(savedProduct.getCategory()));
         log.info("created successfully!");
         return savedProduct;
     }
 
-    public Product updateProduct(String id, ProductRequest request) throws ProductSvcException {
+    /**
+     * One SELECT and one UPDATE in a single transaction, a name taken by another product is reported by the unique index.
+     *
+     * @param ifMatch optional If-Match header, when present the update only goes through if it matches the current ETag
+     */
+    @Transactional
+    public Product updateProduct(String id, ProductRequest request, String ifMatch) throws ProductSvcException {
+        // the request carries an absolute quantity, buffered deltas are written first so they do not land on top of it
+        productQuantityBuffer.flush(List.of(id));
         log.info("Fetching product to update...");
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductSvcException(ERR_INVENTORY_MS_NO_PRODUCT_FOUND));
 
         log.info("Product found! [{}]", product.getItemName());
-
-        String newName = request.getItemName();
-        String currentName = product.getItemName();
-
-        // Check if name already exists (when changed)
-        if (!currentName.equalsIgnoreCase(newName)) {
-            log.info("Validating if the product exists...");
-            productRepository.findByItemName(newName)
-                    .ifPresent(p -> {
-                        throw new ProductSvcException(NVentSvcErrorType.ERR_INVENTORY_MS_PRODUCT_EXIST);
-                    });
-        }
+        checkPrecondition(product, ifMatch);
+        String currentCategory = product.getCategory();
 
         // Apply updates
         updateProductFields(product, request);
-        Product updated = productRepository.save(product);
+        Product updated;
+        try {
+            // flushed here, inside the try: UPDATE ... WHERE version = ? detects a write that slipped in since the read
+            updated = productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ProductSvcException(ERR_INVENTORY_MS_PRECONDITION_FAILED, e);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Product name [{}] is already taken.", request.getItemName());
+            throw new ProductSvcException(ERR_INVENTORY_MS_PRODUCT_EXIST, e);
+        }
+        afterCommit(() -> {
+            productCacheService.evict(id);
+            productSearchIndex.index(updated);
+            productStatsService.update(updated);
+            productSearchCache.invalidate(List.of(currentCategory, updated.getCategory()));
+        });
         log.info("Updated successfully!");
         return updated;
     }
@@ -125,14 +248,72 @@ public class ProductService {
         product.setUnit(request.getUnit());
     }
 
+    /**
+     * Soft delete, the row is moved to the archive later by {@link ProductArchiveService}.
+     *
+     * @param ifMatch optional If-Match header, when present the product is only deleted if it matches the current ETag
+     */
     @Transactional
-    public boolean deleteProduct(String id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+    public boolean deleteProduct(String id, String ifMatch) {
+        boolean deleted;
+        String category = null;
+        LocalDateTime now = LocalDateTime.now();
+        if (ifMatch == null) {
+            // single UPDATE, the affected row count tells us whether it existed
+            deleted = productRepository.softDeleteByIds(List.of(id), now) > 0;
+        } else {
+            Product current = productRepository.findById(id).orElse(null);
+            if (current != null) {
+                checkPrecondition(current, ifMatch);
+                if (productRepository.softDeleteByIdAndVersion(id, current.getVersion(), now) == 0) {
+                    throw new ProductSvcException(ERR_INVENTORY_MS_PRECONDITION_FAILED);
+                }
+                category = current.getCategory();
+            }
+            deleted = current != null;
+        }
+
+        if (deleted) {
+            String deletedCategory = category;
+            afterCommit(() -> {
+                productCacheService.evict(id);
+                productSearchIndex.remove(id);
+                productStatsService.remove(id);
+                if (deletedCategory != null) {
+                    productSearchCache.invalidate(List.of(deletedCategory));
+                } else {
+                    // the plain delete never read the row, so its category is unknown
+                    productSearchCache.invalidateAll();
+                }
+            });
             log.info("Product with ID {} deleted successfully.", id);
             return true;
         }
         log.info("Product with ID {} was not found for deletion.", id);
         return false;
     }
+
+    /**
+     * Runs {@code action} once the surrounding transaction has committed, so a concurrent read cannot put the
+     * old row back into a cache.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void checkPrecondition(Product current, String ifMatch) {
+        if (ifMatch != null && !ETagUtils.matches(ifMatch, ETagUtils.of(current))) {
+            log.info("If-Match [{}] does not match product [{}], rejecting write.", ifMatch, current.getId());
+            throw new ProductSvcException(ERR_INVENTORY_MS_PRECONDITION_FAILED);
+        }
+    }
 }
@@ -0,0 +1,433 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.dto.CategoryStats;
+import com.java.inventory.system.dto.InventoryStats;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_STATS_CHANNEL;
+
+/**
+ * Stock count, quantity, value ({@code unitPrice * quantity}) and price range per category, answered from memory.
+ * <p>
+ * Built at startup by scanning the product table with one streaming query per category on
+ * {@code app.stats.scan-threads} threads, then kept current by the same after-commit hooks that maintain
+ * {@link ProductSearchIndex}. Each product's last seen (category, price, quantity, version) is remembered, so an
+ * update only has to subtract the old figures and add the new ones; set-based writers need not know what they
+ * overwrote. A late after-commit carrying an older version than the one already applied is ignored.
+ * Prices per category are kept in a counted sorted map so min/max stay exact when the cheapest product goes away.
+ * <p>
+ * Every change is broadcast over Redis pub/sub and applied by the other instances the same way, so all of them report
+ * the same figures. For a minute after a removal, changes from other instances for that id are ignored, so a change
+ * that raced the delete does not bring it back. Ids can be reused, but only once the deleted row was archived
+ * ({@code app.archive.retention-days} later), long after the window has closed. What an instance misses
+ * while disconnected from Redis is corrected by the scan, which runs again every {@code app.stats.rebuild-ms} and
+ * also drops products it no longer finds.
+ * <p>
+ * Until the scan has finished, and when disabled, {@link #getStats()} runs the grouped query instead.
+ * {@link #reconcile()} compares the in-memory figures with that query.
+ */
+@Slf4j
+@Service
+public class ProductStatsService implements MessageListener {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final int scanThreads;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic changeTopic = new ChannelTopic(PRODUCT_STATS_CHANNEL);
+    // tells our own broadcasts apart from the other instances'
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Map<String, Entry> products = new ConcurrentHashMap<>();
+    private final Map<String, Totals> categories = new ConcurrentHashMap<>();
+
+    // ids written through update()/remove() while the startup scan is running, the scan must not overwrite them
+    private final Set<String> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    // recently removed ids, a change from another instance that raced the delete must not count them again. Longer
+    // than any broadcast is delayed, short enough that it cannot hide a product created again under the same id
+    private final Cache<String, Boolean> removed = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    public ProductStatsService(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.stats.enabled:true}") boolean enabled,
+                               @Value("${app.stats.scan-threads:4}") int scanThreads,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.scanThreads = scanThreads;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    private record Entry(String category, BigDecimal unitPrice, int quantity, long version) {
+
+        BigDecimal value() {
+            return unitPrice == null ? BigDecimal.ZERO : unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    record ChangedRow(String id, String category, BigDecimal unitPrice, int quantity, long version) {
+    }
+
+    /**
+     * One broadcast: the rows written and the ids removed by a single write.
+     */
+    record StatsChange(String origin, List<ChangedRow> changed, List<String> removed) {
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            listenerContainer.addMessageListener(this, changeTopic);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Incremental product stats disabled, the stats endpoint will run a grouped query.");
+            return;
+        }
+        Thread builder = new Thread(this::rebuild, "product-stats-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Catches up with changes this instance missed, see the class comment.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.rebuild-ms:900000}", initialDelayString = "${app.stats.rebuild-ms:900000}")
+    public void refresh() {
+        if (enabled && ready && !building) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Scans the product table into the totals, categories in parallel, each in its own read-only transaction, and
+     * drops the products the scan did not find.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        ExecutorService pool = null;
+        try {
+            List<String> keys = readOnlyTx.execute(status -> productRepository.findCategoryKeys());
+            pool = Executors.newFixedThreadPool(Math.max(1, Math.min(scanThreads, keys.size())));
+            Set<String> scanned = ConcurrentHashMap.newKeySet();
+            List<Future<?>> scans = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                scans.add(pool.submit(() -> readOnlyTx.executeWithoutResult(status -> {
+                    try (Stream<ProductView> rows = productRepository.streamViewsByCategoryKey(key)) {
+                        rows.forEach(row -> {
+                            put(row.id(), new Entry(row.category(), row.unitPrice(), row.quantity(), row.version()), false);
+                            scanned.add(row.id());
+                        });
+                    }
+                })));
+            }
+            for (Future<?> scan : scans) {
+                scan.get();
+            }
+            long dropped = 0;
+            for (String id : List.copyOf(products.keySet())) {
+                if (!scanned.contains(id) && !touchedDuringBuild.contains(id)) {
+                    removeLocally(id);
+                    dropped++;
+                }
+            }
+            ready = true;
+            log.info("Product stats built: {} products in {} categories, {} stale dropped in {} ms.",
+                    scanned.size(), keys.size(), dropped, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Product stats build interrupted, stats will keep using SQL.");
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Failed to build product stats, stats will keep using SQL.", e);
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            building = false;
+            touchedDuringBuild.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records the committed state of a created or changed product.
+     */
+    public void update(Product product) {
+        updateAll(List.of(product));
+    }
+
+    /**
+     * Records the committed state of the products here and on every other instance, with one broadcast.
+     */
+    public void updateAll(Collection<Product> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<ChangedRow> rows = changed.stream()
+                .map(p -> new ChangedRow(p.getId(), p.getCategory(), p.getUnitPrice(), p.getQuantity(),
+                        p.getVersion() == null ? 0 : p.getVersion()))
+                .toList();
+        rows.forEach(row -> put(row, true));
+        broadcast(new StatsChange(origin, rows, List.of()));
+    }
+
+    public void remove(String id) {
+        removeAll(List.of(id));
+    }
+
+    public void removeAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(this::removeLocally);
+        broadcast(new StatsChange(origin, List.of(), List.copyOf(ids)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        StatsChange change;
+        try {
+            change = objectMapper.readValue(message.getBody(), StatsChange.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable product stats change: {}", e.getMessage());
+            return;
+        }
+        if (origin.equals(change.origin())) {
+            return;
+        }
+        change.removed().forEach(this::removeLocally);
+        for (ChangedRow row : change.changed()) {
+            if (removed.getIfPresent(row.id()) == null) {
+                put(row, true);
+            }
+        }
+    }
+
+    public InventoryStats getStats() {
+        if (!ready) {
+            log.info("Computing product stats from database...");
+            List<CategoryStats> computed = readOnlyTx.execute(status -> productRepository.computeCategoryStats());
+            return summarize(false, computed);
+        }
+        return summarize(true, categories.values().stream().map(Totals::snapshot).filter(c -> c.count() > 0).toList());
+    }
+
+    /**
+     * Compares the in-memory figures with a full recompute. Writes committing while it runs can show up as
+     * short-lived differences, a difference that persists means an update path does not call
+     * {@link #update(Product)} / {@link #remove(String)}.
+     */
+    public Map<String, Object> reconcile() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        if (!ready) {
+            report.put("consistent", false);
+            report.put("mismatches", List.of("incremental stats are not built yet"));
+            return report;
+        }
+        Map<String, CategoryStats> expected = byKey(readOnlyTx.execute(status -> productRepository.computeCategoryStats()));
+        Map<String, CategoryStats> actual = byKey(categories.values().stream().map(Totals::snapshot)
+                .filter(c -> c.count() > 0).toList());
+
+        List<String> mismatches = new ArrayList<>();
+        Set<String> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (String key : keys) {
+            CategoryStats want = expected.get(key);
+            CategoryStats have = actual.get(key);
+            if (!same(want, have)) {
+                mismatches.add("category [" + key + "]: expected " + want + " but was " + have);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            log.warn("Product stats differ from the database in {} categories: {}", mismatches.size(), mismatches);
+        }
+        report.put("consistent", mismatches.isEmpty());
+        report.put("categories", keys.size());
+        report.put("mismatches", mismatches);
+        return report;
+    }
+
+    private void put(ChangedRow row, boolean incremental) {
+        put(row.id(), new Entry(row.category(), row.unitPrice(), row.quantity(), row.version()), incremental);
+    }
+
+    private void removeLocally(String id) {
+        if (building) {
+            touchedDuringBuild.add(id);
+        }
+        removed.put(id, Boolean.TRUE);
+        products.computeIfPresent(id, (key, previous) -> {
+            totals(previous).add(previous, -1);
+            return null;
+        });
+    }
+
+    private void broadcast(StatsChange change) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(changeTopic.getTopic(), objectMapper.writeValueAsString(change));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to broadcast product stats change, other instances catch up on their next rebuild: {}",
+                    e.getMessage());
+        }
+    }
+
+    private void put(String id, Entry entry, boolean incremental) {
+        if (incremental && building) {
+            touchedDuringBuild.add(id);
+        }
+        products.compute(id, (key, previous) -> {
+            if (!incremental && touchedDuringBuild.contains(id)) {
+                return previous;
+            }
+            if (previous != null && previous.version() > entry.version()) {
+                return previous; // a slower transaction's after-commit, the newer state is already applied
+            }
+            if (previous != null) {
+                totals(previous).add(previous, -1);
+            }
+            totals(entry).add(entry, 1);
+            return entry;
+        });
+    }
+
+    private Totals totals(Entry entry) {
+        return categories.computeIfAbsent(categoryKey(entry.category()), key -> new Totals());
+    }
+
+    private static String categoryKey(String category) {
+        return Objects.requireNonNullElse(Product.key(category), "");
+    }
+
+    private static InventoryStats summarize(boolean incremental, List<CategoryStats> perCategory) {
+        long count = 0;
+        long quantity = 0;
+        BigDecimal value = BigDecimal.ZERO;
+        BigDecimal min = null;
+        BigDecimal max = null;
+        for (CategoryStats c : perCategory) {
+            count += c.count();
+            quantity += c.totalQuantity();
+            value = value.add(c.totalValue() == null ? BigDecimal.ZERO : c.totalValue());
+            min = c.minPrice() == null || (min != null && min.compareTo(c.minPrice()) <= 0) ? min : c.minPrice();
+            max = c.maxPrice() == null || (max != null && max.compareTo(c.maxPrice()) >= 0) ? max : c.maxPrice();
+        }
+        List<CategoryStats> sorted = perCategory.stream()
+                .sorted(Comparator.comparing(c -> categoryKey(c.category())))
+                .toList();
+        return new InventoryStats(incremental, new CategoryStats(null, count, quantity, value, min, max), sorted);
+    }
+
+    private static Map<String, CategoryStats> byKey(List<CategoryStats> stats) {
+        Map<String, CategoryStats> map = new HashMap<>();
+        stats.forEach(c -> map.put(categoryKey(c.category()), c));
+        return map;
+    }
+
+    private static boolean same(CategoryStats a, CategoryStats b) {
+        return a != null && b != null
+                && a.count() == b.count()
+                && a.totalQuantity() == b.totalQuantity()
+                && sameAmount(a.totalValue(), b.totalValue())
+                && sameAmount(a.minPrice(), b.minPrice())
+                && sameAmount(a.maxPrice(), b.maxPrice());
+    }
+
+    // scale differs between SQL sums and BigDecimal arithmetic, and SUM over only null prices is null
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return Objects.requireNonNullElse(a, BigDecimal.ZERO).compareTo(Objects.requireNonNullElse(b, BigDecimal.ZERO)) == 0;
+    }
+
+    /**
+     * Running figures of one category.
+     */
+    private static final class Totals {
+        private String category;
+        private long count;
+        private long quantity;
+        private BigDecimal value = BigDecimal.ZERO;
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+
+        synchronized void add(Entry entry, int sign) {
+            if (sign > 0) {
+                category = entry.category();
+            }
+            count += sign;
+            quantity += (long) sign * entry.quantity();
+            value = sign > 0 ? value.add(entry.value()) : value.subtract(entry.value());
+            if (entry.unitPrice() != null) {
+                // compared with compareTo, so 10.0 and 10.00 are one key; merge drops the price once its count reaches zero
+                prices.merge(entry.unitPrice(), sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+
+        synchronized CategoryStats snapshot() {
+            return new CategoryStats(category, count, quantity, value,
+                    prices.isEmpty() ? null : prices.firstKey(), prices.isEmpty() ? null : prices.lastKey());
+        }
+    }
+}
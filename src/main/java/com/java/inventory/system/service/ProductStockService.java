@@ -0,0 +1,105 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.dto.PickListRequest;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INSUFFICIENT_STOCK;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_NO_PRODUCT_FOUND;
+
+/**
+ * Stock movements applied as {@code quantity = quantity + delta} in the database.
+ * <p>
+ * Unlike a full product update nothing is read first, so concurrent pickers on the same product serialize on the
+ * row lock and every delta is counted. A delta that would take the quantity below zero is rejected.
+ * <p>
+ * With {@code app.stock.write-behind.enabled} single adjustments go to {@link ProductQuantityBuffer} instead and reach
+ * the database coalesced. Pick lists stay synchronous since they must apply all or nothing.
+ */
+@Slf4j
+@Service
+public class ProductStockService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCacheService productCacheService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchCache productSearchCache;
+    private final ProductStatsService productStatsService;
+    private final ProductQuantityBuffer productQuantityBuffer;
+
+    public ProductStockService(ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               ProductCacheService productCacheService,
+                               ProductSearchIndex productSearchIndex,
+                               ProductSearchCache productSearchCache,
+                               ProductStatsService productStatsService,
+                               ProductQuantityBuffer productQuantityBuffer) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productCacheService = productCacheService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSearchCache = productSearchCache;
+        this.productStatsService = productStatsService;
+        this.productQuantityBuffer = productQuantityBuffer;
+    }
+
+    public Map<String, Object> adjustStock(String id, int delta) {
+        log.info("Adjusting stock of product [{}] by {}.", id, delta);
+        if (productQuantityBuffer.isEnabled()) {
+            return Map.of("id", id, "quantity", productQuantityBuffer.adjust(id, delta));
+        }
+        Map<String, Integer> quantities = apply(Map.of(id, delta));
+        return Map.of("id", id, "quantity", quantities.get(id));
+    }
+
+    /**
+     * Applies a whole pick list in one transaction, if any line fails nothing is changed.
+     */
+    public Map<String, Object> adjustStock(PickListRequest request) {
+        // merge repeated lines and lock rows in id order so two overlapping pick lists cannot deadlock
+        Map<String, Integer> deltas = new TreeMap<>();
+        request.getItems().forEach(item -> deltas.merge(item.getProductId(), item.getDelta(), Integer::sum));
+
+        log.info("Applying pick list of {} products.", deltas.size());
+        return Map.of("quantities", apply(deltas));
+    }
+
+    private Map<String, Integer> apply(Map<String, Integer> deltas) {
+        // buffered deltas first, the non-negative check below has to see them
+        productQuantityBuffer.flush(deltas.keySet());
+        List<Product> products = transactionTemplate.execute(status -> {
+            deltas.forEach(this::applyDelta);
+            return productRepository.findByIdIn(deltas.keySet());
+        });
+
+        // only after commit, otherwise a concurrent read could cache the old quantity again
+        productCacheService.evictAll(deltas.keySet());
+        productSearchIndex.indexAll(products);
+        productStatsService.updateAll(products);
+        // searches sorted by quantity change order
+        productSearchCache.invalidate(products.stream().map(Product::getCategory).toList());
+
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        products.forEach(p -> quantities.put(p.getId(), p.getQuantity()));
+        return quantities;
+    }
+
+    private void applyDelta(String id, int delta) {
+        if (productRepository.adjustQuantity(id, delta) == 0) {
+            throw productRepository.existsById(id)
+                    ? new ProductSvcException(id, ERR_INVENTORY_MS_INSUFFICIENT_STOCK)
+                    : new ProductSvcException(id, ERR_INVENTORY_MS_NO_PRODUCT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.java.inventory.system.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.inventory.system.model.User;
+import com.java.inventory.system.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.java.inventory.system.constant.InventoryConstant.USER_INVALIDATION_CHANNEL;
+
+/**
+ * In-process cache of user rows by username, shared by authentication, OTP and Telegram lookups.
+ * <p>
+ * Bounded by {@code app.user-cache.max-size} and expired after {@code app.user-cache.ttl-seconds}. Every path that
+ * changes a user calls {@link #evict(String)} after saving; the username is broadcast over Redis pub/sub so other
+ * instances drop their copy too. Callers get their own copy of the row, changing it does not touch the cache.
+ * A cached row may be stale, so it is for reads only: write paths load the row from {@link UserRepository}.
+ * <p>
+ * Every eviction, local or received, leaves a short tombstone, as in {@link ProductCacheService}. A load that started
+ * before it may have read the row as it was before the write, so its result is returned but not cached.
+ */
+@Slf4j
+@Service
+public class UserCacheService implements MessageListener {
+
+    // longer than any database load takes
+    private static final Duration TOMBSTONE_TTL = Duration.ofSeconds(10);
+
+    private final Cache<String, User> users;
+    // username -> System.nanoTime() of the last eviction
+    private final Cache<String, Long> tombstones = Caffeine.newBuilder()
+            .expireAfterWrite(TOMBSTONE_TTL)
+            .build();
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic invalidationTopic = new ChannelTopic(USER_INVALIDATION_CHANNEL);
+
+    public UserCacheService(UserRepository userRepository,
+                            StringRedisTemplate redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            @Value("${app.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, invalidationTopic);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        User user = users.getIfPresent(username);
+        if (user == null) {
+            long loadStart = System.nanoTime();
+            user = userRepository.findByUsername(username).orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            fill(username, user, loadStart);
+        }
+        return Optional.of(user.toBuilder().build());
+    }
+
+    /**
+     * Call after the user's row was saved.
+     */
+    public void evict(String username) {
+        tombstone(username);
+        try {
+            redisTemplate.convertAndSend(invalidationTopic.getTopic(), username);
+        } catch (RuntimeException e) {
+            log.warn("Unable to broadcast user cache invalidation for [{}]: {}", username, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        tombstone(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // caches a loaded user unless it was evicted after the load started, checked again after the put so an eviction
+    // landing in between is not overwritten
+    private void fill(String username, User user, long loadStart) {
+        if (evictedSince(username, loadStart)) {
+            log.debug("User [{}] was written while it was loading, not caching it.", username);
+            return;
+        }
+        users.put(username, user);
+        if (evictedSince(username, loadStart)) {
+            users.invalidate(username);
+        }
+    }
+
+    private boolean evictedSince(String username, long loadStart) {
+        Long evictedAt = tombstones.getIfPresent(username);
+        return evictedAt != null && evictedAt - loadStart >= 0;
+    }
+
+    private void tombstone(String username) {
+        tombstones.put(username, System.nanoTime());
+        users.invalidate(username);
+    }
+}
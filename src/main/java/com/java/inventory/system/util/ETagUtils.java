@@ -0,0 +1,81 @@
+package com.java.inventory.system.util;
+
+import com.java.inventory.system.dto.ProductPage;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.TreeMap;
+
+/**
+ * Strong ETags computed from what is already in memory, so a matching If-None-Match never needs the body serialized.
+ */
+@UtilityClass
+public class ETagUtils {
+
+    /**
+     * {@code "<version>-<hash>"}, the hash covering every field of the response. The version alone is not enough: an
+     * id can be reused once its deleted row was archived and the new product starts again at version 0, and
+     * write-behind deltas change the quantity without bumping the version. The price is hashed without trailing zeros,
+     * since a write response keeps the request's scale (12.5) while a reload has the column's (12.50) and both must
+     * carry the same ETag.
+     */
+    public static String of(Product product) {
+        return "\"" + product.getVersion() + "-" + sha256(row(new StringBuilder(), ProductView.of(product)), 8) + "\"";
+    }
+
+    /**
+     * SHA-256 over every field of every row (as in {@link #of(Product)}), the paging fields and the facets,
+     * truncated to 128 bits.
+     */
+    public static String of(ProductPage page) {
+        StringBuilder key = new StringBuilder();
+        for (ProductView row : page.content()) {
+            row(key, row).append('\n');
+        }
+        key.append(page.currentPage()).append('|').append(page.totalItems()).append('|').append(page.totalPages())
+                .append('|').append(page.size()).append('|').append(page.hasNext()).append('|')
+                .append(page.nextCursor()).append('|');
+        if (page.facets() != null) {
+            key.append(new TreeMap<>(page.facets().category())).append('|').append(new TreeMap<>(page.facets().unit()));
+        }
+        return "\"" + sha256(key, 16) + "\"";
+    }
+
+    /**
+     * Strong comparison of an If-Match header against the current ETag. {@code *} matches any existing product,
+     * weak validators never match.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static StringBuilder row(StringBuilder key, ProductView row) {
+        BigDecimal price = row.unitPrice() == null ? null : row.unitPrice().stripTrailingZeros();
+        return key.append(row.id()).append('\u0000').append(row.version()).append('\u0000')
+                .append(row.itemName()).append('\u0000').append(row.description()).append('\u0000')
+                .append(row.category()).append('\u0000').append(price == null ? null : price.toPlainString())
+                .append('\u0000').append(row.quantity()).append('\u0000').append(row.unit());
+    }
+
+    // hex of the first bytes of the digest
+    private static String sha256(CharSequence key, int bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.java.inventory.system.util;
+
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.dto.ProductView;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INVALID_CURSOR;
+
+/**
+ * Opaque keyset cursor holding the (itemName, id) of the last row of a page.
+ * Encoded as url-safe base64 so clients treat it as a token and never build one by hand.
+ */
+public record ProductCursor(String itemName, String id) {
+
+    // sorts before every real row, used for the first page
+    public static final ProductCursor START = new ProductCursor("", "");
+
+    private static final char SEPARATOR = '\u0000';
+
+    public static ProductCursor of(ProductView product) {
+        return new ProductCursor(product.itemName(), product.id());
+    }
+
+    public String encode() {
+        String raw = itemName + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, a blank token means "start from the beginning".
+     */
+    public static ProductCursor decode(String token) {
+        if (StringUtils.isBlank(token)) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ProductSvcException(ERR_INVENTORY_MS_INVALID_CURSOR);
+            }
+            return new ProductCursor(raw.substring(0, separator), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ProductSvcException(ERR_INVENTORY_MS_INVALID_CURSOR, e);
+        }
+    }
+}
@@ -1,21 +1,118 @@
 package com.java.inventory.system.util;
 
-import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered product ids, Snowflake style: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id and
+ * 12 bits of sequence, written as 13 Crockford base32 characters.
+ * <p>
+ * 13 uppercase characters is the width of the old random ids, and because the alphabet is in ASCII order the
+ * string order is the creation order. New rows therefore land at the right edge of the primary key instead of
+ * splitting pages all over it. Ids from one node are strictly increasing: the sequence carries over into the next
+ * millisecond when it runs out, and a clock that moves backwards is ignored until it catches up again. The counter
+ * starts at the clock reading taken when the generator is created, so a clock that is stepped back before the first
+ * id is handed out does not reach back into time already used.
+ */
+@Slf4j
+@Component
 public class ProductIdGenerator {
 
-    public static String generateId() {
-        // Generate a random UUID, remove dashes, take first 13 chars, convert to uppercase
-        return UUID.randomUUID()
-                .toString()
-                .replace("-", "")
-                .substring(0, 13)
-                .toUpperCase();
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+
+    private final long node;
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last;
+
+    @Autowired
+    public ProductIdGenerator(@Value("${app.id.node-id:-1}") int nodeId, Environment environment) {
+        this(nodeId < 0 ? defaultNodeId(environment) : nodeId, Clock.systemUTC());
+    }
+
+    public ProductIdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    ProductIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+        this.last = new AtomicLong((clock.millis() - epochMillis) << SEQUENCE_BITS);
+    }
+
+    public String generateId() {
+        return encode(nextId());
+    }
+
+    public long nextId() {
+        long now = clock.millis() - epochMillis;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // same millisecond, exhausted sequence or clock moved back: keep counting from the last id
+            next = Math.max(now << SEQUENCE_BITS, previous + 1);
+        } while (!last.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
     }
 
-    public static void main(String[] args) {
-        for (int i = 0; i < 10; i++) {
-            System.out.println(generateId());
+    public static String encode(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH.toEpochMilli());
+    }
+
+    /**
+     * Every instance needs its own node id, set {@code app.id.node-id}. Only the test profile may leave it out: the id
+     * is then derived from host name and pid, which can collide between instances and is refused anywhere else,
+     * including dev, which is the profile production runs with.
+     */
+    private static int defaultNodeId(Environment environment) {
+        if (!environment.acceptsProfiles(Profiles.of("test"))) {
+            throw new IllegalStateException("app.id.node-id is not set, every instance needs its own node id 0.."
+                    + MAX_NODE_ID);
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
         }
+        int nodeId = Math.floorMod((host + "/" + ManagementFactory.getRuntimeMXBean().getPid()).hashCode(),
+                MAX_NODE_ID + 1);
+        log.warn("app.id.node-id is not set, using node id {} derived from host and pid.", nodeId);
+        return nodeId;
     }
 }
@@ -0,0 +1,27 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so nothing added since belongs here: later columns and indexes go into their own migrations.
+
+CREATE TABLE IF NOT EXISTS product (
+    id          VARCHAR(255)   NOT NULL,
+    item_name   VARCHAR(255),
+    description VARCHAR(255),
+    category    VARCHAR(255),
+    unit_price  DECIMAL(38, 2),
+    quantity    INT            NOT NULL,
+    unit        VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    username         VARCHAR(255) NOT NULL,
+    password         VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    mobile           VARCHAR(255) NOT NULL,
+    is_verified      BOOLEAN      NOT NULL,
+    roles            VARCHAR(255),
+    telegram_chat_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
@@ -0,0 +1,5 @@
+-- Optimistic locking / ETag version of a product (Product#version), existing rows start at 0.
+ALTER TABLE product ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- keyset pagination of the product list seeks on (item_name, id)
+CREATE INDEX idx_product_item_name_id ON product (item_name, id);
@@ -0,0 +1,13 @@
+-- Lower-cased, trimmed copies of item_name and category, kept in sync by Product#updateKeys().
+-- Lookups compare against these columns instead of LOWER(column) so the indexes below can be used.
+
+ALTER TABLE product ADD COLUMN item_name_key VARCHAR(255);
+ALTER TABLE product ADD COLUMN category_key VARCHAR(255);
+
+UPDATE product SET item_name_key = LOWER(TRIM(item_name)), category_key = LOWER(TRIM(category));
+
+-- item names are unique regardless of case, this fails if existing data has case-only duplicates
+CREATE UNIQUE INDEX uk_product_item_name_key ON product (item_name_key);
+
+-- category filter, category exports and the bulk operations walking a category by id
+CREATE INDEX idx_product_category_key_id ON product (category_key, id);
@@ -0,0 +1,29 @@
+-- Deleted products stay in product with deleted_at set until ProductArchiveService moves them to product_archive.
+-- Every entity query filters on deleted_at IS NULL (@SQLRestriction on Product), so they are invisible to the API.
+
+ALTER TABLE product ADD COLUMN deleted_at TIMESTAMP(6);
+
+-- the archiver's range scan, live rows are all NULL
+CREATE INDEX idx_product_deleted_at ON product (deleted_at);
+
+CREATE TABLE IF NOT EXISTS product_archive (
+    archive_id    BIGINT         NOT NULL AUTO_INCREMENT,
+    id            VARCHAR(255)   NOT NULL,
+    item_name     VARCHAR(255),
+    description   VARCHAR(255),
+    category      VARCHAR(255),
+    unit_price    DECIMAL(38, 2),
+    quantity      INT            NOT NULL,
+    unit          VARCHAR(255),
+    version       BIGINT         NOT NULL,
+    item_name_key VARCHAR(255),
+    category_key  VARCHAR(255),
+    deleted_at    TIMESTAMP(6)   NOT NULL,
+    archived_at   TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (archive_id)
+);
+
+-- an id can be archived more than once when a client reuses it for a new product
+CREATE INDEX idx_product_archive_id ON product_archive (id);
+CREATE INDEX idx_product_archive_item_name ON product_archive (item_name, archive_id);
+CREATE INDEX idx_product_archive_category_key ON product_archive (category_key, archive_id);
@@ -61,9 +61,9 @@ public class LoginTest {
         // Generate a valid JWT for testing
         token = "Bearer " + jwtUtil.generateToken("testuser", "ROLE_ADMIN");
 
-        redisTemplate.opsForValue().set(
-                "TEMP_LOGIN:" + "12345",
-                "testuser",
+        redisTemplate.opsForHash().put("AUTH_SESSION:" + "12345", "username", "testuser");
+        redisTemplate.expire(
+                "AUTH_SESSION:" + "12345",
                 InventoryConstant.TEMP_TOKEN_EXPIRATION_MINUTES,
                 TimeUnit.MINUTES
         );
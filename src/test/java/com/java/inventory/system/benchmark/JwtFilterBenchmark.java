@@ -0,0 +1,158 @@
+package com.java.inventory.system.benchmark;
+
+import com.java.inventory.system.security.JwtAuthenticationFilter;
+import com.java.inventory.system.security.JwtUtil;
+import com.java.inventory.system.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.security.Key;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One authenticated request through the JWT filter, from the Authorization header to the SecurityContext.
+ * <ul>
+ *     <li>{@code legacy}: the filter this change replaced, three parses and signature checks per request</li>
+ *     <li>{@code parseOnce}: {@link JwtAuthenticationFilter} with the verified-token cache sized 0,
+ *     so every request verifies the token once</li>
+ *     <li>{@code cached}: {@link JwtAuthenticationFilter} as configured, the token was seen before</li>
+ * </ul>
+ * Both new variants include the revocation check, which for an unrevoked token is a Bloom filter lookup.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    static final String SECRET = "replace-with-a-strong-random-secret-256-bit-base64";
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"legacy", "parseOnce", "cached"})
+        public String variant;
+
+        OncePerRequestFilter filter;
+        String header;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000, variant.equals("parseOnce") ? 0 : 10_000);
+            header = "Bearer " + jwtUtil.generateToken("benchmark-user", "ROLE_USER,ROLE_ADMIN");
+            filter = variant.equals("legacy") ? new LegacyFilter(SECRET) : new JwtAuthenticationFilter(jwtUtil, revocationList());
+        }
+
+        // nothing revoked, a Redis call here would fail the run
+        private static TokenRevocationList revocationList() {
+            StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+            when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> mock(Cursor.class));
+            TokenRevocationList revocationList = new TokenRevocationList(redisTemplate,
+                    mock(RedisMessageListenerContainer.class), 3_600_000, 100_000, 0.001);
+            revocationList.rebuild();
+            when(redisTemplate.opsForValue()).thenThrow(new IllegalStateException("unexpected Redis lookup"));
+            when(redisTemplate.hasKey(any())).thenThrow(new IllegalStateException("unexpected Redis lookup"));
+            return revocationList;
+        }
+    }
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Authentication authenticate(Filter state) throws Exception {
+        // a fresh request each time, OncePerRequestFilter skips a request it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/product");
+        request.addHeader("Authorization", state.header);
+        state.filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * The previous JwtAuthenticationFilter and the JwtUtil methods it called.
+     */
+    static class LegacyFilter extends OncePerRequestFilter {
+
+        private final Key key;
+
+        LegacyFilter(String secret) {
+            this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws jakarta.servlet.ServletException, java.io.IOException {
+            String header = request.getHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                String token = header.substring(7);
+                if (validateToken(token)) {
+                    String username = claims(token).getSubject();
+                    String roles = claims(token).get("roles", String.class);
+                    var authorities = Arrays.stream(roles.split(","))
+                            .map(String::trim)
+                            .map(SimpleGrantedAuthority::new)
+                            .collect(Collectors.toList());
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, authorities));
+                }
+            }
+            chain.doFilter(request, response);
+        }
+
+        private boolean validateToken(String token) {
+            try {
+                claims(token);
+                return true;
+            } catch (JwtException | IllegalArgumentException ex) {
+                return false;
+            }
+        }
+
+        private Claims claims(String token) {
+            return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{JwtFilterBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,143 @@
+package com.java.inventory.system.benchmark;
+
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The old random product ids ({@code uuid}, first 13 characters of a random UUID) against {@link ProductIdGenerator}
+ * ({@code timeOrdered}).
+ * <ul>
+ *     <li>{@code generate*}: ids per microsecond with 8 threads sharing one generator</li>
+ *     <li>{@code insertBatch}: one batch of 1000 product rows into a file-backed H2 table that already holds
+ *     {@value #PRELOADED_ROWS} rows with the same kind of id, the primary key decides where each row goes</li>
+ * </ul>
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductIdBenchmark {
+
+    static final int PRELOADED_ROWS = 200_000;
+    static final int BATCH_SIZE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        final ProductIdGenerator generator = new ProductIdGenerator(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String generateUuid() {
+        return uuidId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String generateTimeOrdered(Generator state) {
+        return state.generator.generateId();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Table {
+
+        @Param({"uuid", "timeOrdered"})
+        public String idScheme;
+
+        Supplier<String> ids;
+        Path directory;
+        Connection connection;
+        PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            ProductIdGenerator generator = new ProductIdGenerator(1);
+            ids = idScheme.equals("uuid") ? ProductIdBenchmark::uuidId : generator::generateId;
+
+            directory = Files.createTempDirectory("product-id-benchmark");
+            connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("ids") + ";CACHE_SIZE=8192",
+                    "sa", "");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        CREATE TABLE product (id VARCHAR(255) PRIMARY KEY, item_name VARCHAR(255),
+                            description VARCHAR(255), category VARCHAR(255), unit_price DECIMAL(38, 2),
+                            quantity INT, unit VARCHAR(255))""");
+            }
+            connection.setAutoCommit(false);
+            insert = connection.prepareStatement("""
+                    INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)""");
+            for (int i = 0; i < PRELOADED_ROWS / BATCH_SIZE; i++) {
+                insertBatch();
+            }
+        }
+
+        void insertBatch() throws Exception {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                insert.setString(1, ids.get());
+                insert.setString(2, "Product " + i);
+                insert.setString(3, "Description of product " + i);
+                insert.setString(4, "Category " + (i % 10));
+                insert.setBigDecimal(5, BigDecimal.valueOf(1000 + i, 2));
+                insert.setInt(6, i);
+                insert.setString(7, "Pieces");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            connection.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void insertBatch(Table table) throws Exception {
+        table.insertBatch();
+    }
+
+    static String uuidId() {
+        // the generator this benchmark replaced
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 13).toUpperCase();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{ProductIdBenchmark.class.getSimpleName()});
+    }
+}
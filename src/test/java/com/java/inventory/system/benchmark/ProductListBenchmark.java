@@ -0,0 +1,131 @@
+package com.java.inventory.system.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.dto.ProductPage;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.MappingSettings;
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+import org.hibernate.tool.schema.Action;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One product list request before and after the switch to projections: query a page, build the response, serialize it.
+ * <ul>
+ *     <li>{@code entityMap}: managed {@link Product} entities in a {@code HashMap}, flushed at commit (the old path)</li>
+ *     <li>{@code projectionRecord}: {@link ProductView} constructor expression in a read-only transaction,
+ *     wrapped in a {@link ProductPage}</li>
+ * </ul>
+ * Runs against an in-memory H2 database. The gc profiler reports {@code gc.alloc.rate.norm}, the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListBenchmark {
+
+    private static final String ENTITY_QUERY = "SELECT p FROM Product p ORDER BY p.itemName, p.id";
+    private static final String VIEW_QUERY = """
+            SELECT new com.java.inventory.system.dto.ProductView(
+                p.id, p.itemName, p.description, p.category, p.unitPrice, p.quantity, p.unit, p.version)
+            FROM Product p ORDER BY p.itemName, p.id""";
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private EntityManagerFactory emf;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emf = new HibernatePersistenceConfiguration("benchmark")
+                .managedClass(Product.class)
+                .jdbcUrl("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .jdbcCredentials("sa", "")
+                .schemaToolingAction(Action.CREATE_DROP)
+                .property(MappingSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .createEntityManagerFactory();
+        objectMapper = new ObjectMapper();
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < 1000; i++) {
+            em.persist(Product.builder()
+                    .id(String.format("P%012d", i))
+                    .itemName("Product " + i)
+                    .description("Description of product " + i)
+                    .category("Category " + (i % 10))
+                    .unitPrice(BigDecimal.valueOf(1000 + i, 2))
+                    .quantity(i)
+                    .unit("Pieces")
+                    .build());
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public byte[] entityMap() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<Product> content = em.createQuery(ENTITY_QUERY, Product.class).setMaxResults(pageSize).getResultList();
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", content);
+            response.put("size", content.size());
+            response.put("hasNext", true);
+            response.put("nextCursor", "cursor");
+            em.getTransaction().commit();
+            return objectMapper.writeValueAsBytes(response);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] projectionRecord() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<ProductView> content = em.createQuery(VIEW_QUERY, ProductView.class).setMaxResults(pageSize)
+                    .getResultList();
+            ProductPage response = ProductPage.ofCursor(content, true, "cursor");
+            em.getTransaction().commit();
+            return objectMapper.writeValueAsBytes(response);
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[]{ProductListBenchmark.class.getSimpleName(), "-prof", "gc"});
+    }
+}
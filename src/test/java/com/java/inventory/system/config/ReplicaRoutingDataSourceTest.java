@@ -0,0 +1,138 @@
+package com.java.inventory.system.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static com.java.inventory.system.constant.InventoryConstant.READ_YOUR_WRITES_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Primary and replica are two in-memory H2 databases, each knowing its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        new JdbcTemplate(replica).execute("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), 5, "SELECT seconds FROM replica_lag");
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to the replica, the rest to the primary")
+    void routesByTransactionType() {
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    @DisplayName("A lagging replica is skipped until it catches up")
+    void laggingReplicaFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("A user reads from the primary right after their own write, other users keep using the replica")
+    void readYourWrites() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), redisTemplate);
+        interceptor.afterCompletion(request("POST", "alice"), new MockHttpServletResponse(), null, null);
+
+        assertEquals("primary", readInRequest(interceptor, "alice"));
+        assertEquals("replica", readInRequest(interceptor, "bob"));
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> node())));
+    }
+
+    @Test
+    @DisplayName("A write announces the user, and an instance that hears it keeps that user's reads on the primary")
+    void readYourWritesAcrossInstances() throws Exception {
+        ReadYourWritesInterceptor writer = new ReadYourWritesInterceptor(Duration.ofMinutes(1), redisTemplate);
+        ReadYourWritesInterceptor other = new ReadYourWritesInterceptor(Duration.ofMinutes(1), redisTemplate);
+
+        writer.preHandle(request("PUT", "carol"), new MockHttpServletResponse(), null);
+        verify(redisTemplate).convertAndSend(READ_YOUR_WRITES_CHANNEL, "carol");
+        assertEquals("replica", readInRequest(other, "carol"));
+
+        other.onMessage(new DefaultMessage(READ_YOUR_WRITES_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "carol".getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals("primary", readInRequest(other, "carol"));
+    }
+
+    private String readInRequest(ReadYourWritesInterceptor interceptor, String user) throws Exception {
+        MockHttpServletRequest request = request("GET", user);
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+        try {
+            return readOnly.execute(status -> node());
+        } finally {
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        }
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static MockHttpServletRequest request(String method, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/product");
+        request.setUserPrincipal(() -> user);
+        return request;
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
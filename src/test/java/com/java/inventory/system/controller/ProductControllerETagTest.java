@@ -0,0 +1,199 @@
+package com.java.inventory.system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.service.ProductArchiveService;
+import com.java.inventory.system.service.ProductBulkService;
+import com.java.inventory.system.service.ProductCacheService;
+import com.java.inventory.system.service.ProductExportService;
+import com.java.inventory.system.service.ProductImportService;
+import com.java.inventory.system.service.ProductQuantityBuffer;
+import com.java.inventory.system.service.ProductSearchCache;
+import com.java.inventory.system.service.ProductSearchIndex;
+import com.java.inventory.system.service.ProductService;
+import com.java.inventory.system.service.ProductStatsService;
+import com.java.inventory.system.service.ProductStockService;
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests against the real write path; runs on H2 without Redis, security is covered elsewhere.
+ */
+@DataJpaTest
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@Import({ProductService.class, ProductIdGenerator.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class,
+        ProductSearchIndex.class, ProductSearchCache.class, ProductStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductControllerETagTest {
+
+    private static final String ID = "083FFA7C04C24";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ProductCacheService productCacheService;
+
+    @MockitoBean
+    private ProductQuantityBuffer productQuantityBuffer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // no cache and nothing buffered: every read goes to the database
+        when(productCacheService.get(anyString(), any())).thenAnswer(
+                invocation -> ((Supplier<Optional<Product>>) invocation.getArgument(1)).get());
+        when(productQuantityBuffer.apply(any(Product.class))).thenAnswer(returnsFirstArg());
+        when(productQuantityBuffer.apply(any(ProductView.class))).thenAnswer(returnsFirstArg());
+
+        ProductController controller = new ProductController(productService, mock(ProductImportService.class),
+                mock(ProductExportService.class), mock(ProductBulkService.class), mock(ProductStockService.class),
+                mock(ProductArchiveService.class), mock(ProductStatsService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ControllerAdvice())
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    @DisplayName("The ETag of a write response matches a later GET even though the price comes back rescaled")
+    void writeETagMatchesReload() throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post("/v1/product")
+                        .content(json(new ProductRequest(null, "Rog Ally X", "Handheld PC", "Gadgets",
+                                new BigDecimal("12.5"), 1, "Pieces")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String id = objectMapper.readTree(created.getContentAsString()).get("id").asText();
+
+        mockMvc.perform(get("/v1/product/" + id).header(HttpHeaders.IF_NONE_MATCH, created.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("If-None-Match answers 304 for an unchanged product or page and 200 once it changed")
+    void ifNoneMatch() throws Exception {
+        String etag = mockMvc.perform(get("/v1/product/" + ID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String pageETag = mockMvc.perform(get("/v1/product"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/product/" + ID).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/product").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/v1/product/" + ID).content(json(request(5))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/product/" + ID).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/product").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("A stale If-Match is refused with 412, the current ETag and * are accepted")
+    void ifMatch() throws Exception {
+        String etag = mockMvc.perform(get("/v1/product/" + ID))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String updated = mockMvc.perform(put("/v1/product/" + ID).header(HttpHeaders.IF_MATCH, etag)
+                        .content(json(request(5))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+
+        mockMvc.perform(put("/v1/product/" + ID).header(HttpHeaders.IF_MATCH, etag)
+                        .content(json(request(7))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/v1/product/" + ID).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/v1/product/" + ID).header(HttpHeaders.IF_MATCH, "*")
+                        .content(json(request(7))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        mockMvc.perform(delete("/v1/product/" + ID).header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("A product created again under an archived id does not match the old product's ETag")
+    void reusedIdGetsNewETag() throws Exception {
+        String etag = mockMvc.perform(get("/v1/product/" + ID))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(delete("/v1/product/" + ID)).andExpect(status().isOk());
+        // what ProductArchiveService does once the retention period has passed
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", ID);
+
+        // same id, version and quantity as before, only the name differs
+        mockMvc.perform(post("/v1/product")
+                        .content(json(new ProductRequest(ID, "Steam Deck OLED", "Steam Handheld", "Gadgets",
+                                new BigDecimal("38000"), 1, "Pieces")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/product/" + ID).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String json(ProductRequest request) throws Exception {
+        return objectMapper.writeValueAsString(request);
+    }
+
+    private static ProductRequest request(int quantity) {
+        return new ProductRequest(null, "Steam Deck", "Steam Handheld", "Gadgets", new BigDecimal("38000"), quantity,
+                "Pieces");
+    }
+}
@@ -2,7 +2,6 @@ package com.java.inventory.system.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.java.inventory.system.dto.ProductRequest;
-import com.java.inventory.system.repository.ProductRepository;
 import com.java.inventory.system.security.JwtUtil;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.mockwebserver.MockWebServer;
@@ -30,6 +29,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Slf4j
 @Sql("/testData/product.sql")
 @ActiveProfiles("test")
+// deleteAll() would skip archived rows (@SQLRestriction) and the next insert would clash with them
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 class ProductControllerTest {
 
     @Autowired
@@ -55,10 +56,7 @@ class ProductControllerTest {
     }
 
     @AfterEach
-    void shutDown(
-            @Autowired ProductRepository productRepository
-    ) throws IOException {
-        productRepository.deleteAll();
+    void shutDown() throws IOException {
         mockWebServer.shutdown();
     }
 
@@ -0,0 +1,58 @@
+package com.java.inventory.system.repository;
+
+import com.java.inventory.system.InventorySystemApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on H2 for the statement shapes {@link ProductRepository} issues against the Flyway schema.
+ */
+@DataJpaTest
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+class ProductIndexUsageTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Name uniqueness lookup uses the unique name key index")
+    void nameLookupUsesUniqueIndex() {
+        String plan = explain("SELECT id FROM product WHERE item_name_key = 'steam deck'");
+
+        assertTrue(plan.contains("uk_product_item_name_key"), plan);
+    }
+
+    @Test
+    @DisplayName("Category filter and category walk use the category key index")
+    void categoryFilterUsesIndex() {
+        String plan = explain("""
+                SELECT id FROM product WHERE category_key = LOWER(TRIM('Gadgets')) AND id > '' ORDER BY id
+                """);
+
+        assertTrue(plan.contains("idx_product_category_key_id"), plan);
+    }
+
+    @Test
+    @DisplayName("The old LOWER(category) filter could only scan the table")
+    void lowerFunctionScansTable() {
+        String plan = explain("SELECT id FROM product WHERE LOWER(category) = LOWER('Gadgets')");
+
+        assertTrue(plan.contains("tablescan"), plan);
+    }
+
+    // lower-cased, the embedded test database upper-cases identifiers
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+    }
+}
@@ -0,0 +1,149 @@
+package com.java.inventory.system.repository;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.ProductFacets;
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.util.ProductCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+// the JPA slice has neither the Telegram bot nor the Redis cache manager that @EnableCaching expects
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Keyset pages walk the whole table in (itemName, id) order without overlap")
+    void seekPagination() {
+        List<String> seen = new ArrayList<>();
+        ProductCursor cursor = ProductCursor.START;
+
+        List<ProductView> page;
+        do {
+            page = productRepository.findPageAfter(cursor.itemName(), cursor.id(), Limit.of(1));
+            page.forEach(p -> seen.add(p.itemName()));
+            if (!page.isEmpty()) {
+                cursor = ProductCursor.decode(ProductCursor.of(page.get(page.size() - 1)).encode());
+            }
+        } while (!page.isEmpty());
+
+        assertEquals(List.of("Lenovo Legion Go", "Steam Deck"), seen);
+    }
+
+    @Test
+    @DisplayName("Keyset search applies the name and category filters")
+    void seekSearch() {
+        List<ProductView> page = productRepository.findByItemNameAndCategoryAfter("steam", "gadgets",
+                ProductCursor.START.itemName(), ProductCursor.START.id(), Limit.of(5));
+
+        assertEquals(1, page.size());
+        assertEquals("083FFA7C04C24", page.get(0).id());
+    }
+
+    @Test
+    @DisplayName("Projection page honours the requested sort and counts the whole table")
+    void viewPage() {
+        Page<ProductView> page = productRepository.findAllViews(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "itemName")));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Steam Deck", page.getContent().get(0).itemName());
+    }
+
+    @Test
+    @DisplayName("Facet query groups the name matches by category and unit")
+    void facetCounts() {
+        ProductFacets facets = ProductFacets.of(productRepository.countByCategoryAndUnit("e"));
+
+        assertEquals(Map.of("Gadgets", 2L), facets.category());
+        assertEquals(Map.of("Pieces", 2L), facets.unit());
+    }
+
+    @Test
+    @DisplayName("Streaming scan returns every product")
+    void streamAll() {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            assertEquals(2, products.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Category stream matches case-insensitively")
+    void streamByCategory() {
+        try (Stream<Product> products = productRepository.streamByCategory("GADGETS")) {
+            assertEquals(2, products.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Category id walk pages through the primary key")
+    void idsByCategory() {
+        assertEquals(List.of("083FFA7C04C24"), productRepository.findIdsByCategoryAfter("gadgets", "", Limit.of(1)));
+        assertEquals(List.of("167794255273984"),
+                productRepository.findIdsByCategoryAfter("gadgets", "083FFA7C04C24", Limit.of(1)));
+    }
+
+    @Test
+    @DisplayName("Bulk update only touches the supplied columns")
+    void bulkUpdate() {
+        int updated = productRepository.bulkUpdate(List.of("083FFA7C04C24", "missing"), null, 5, null, "Consoles");
+
+        assertEquals(1, updated);
+        Product product = productRepository.findById("083FFA7C04C24").orElseThrow();
+        assertEquals(5, product.getQuantity());
+        assertEquals("Consoles", product.getCategory());
+        assertEquals("Pieces", product.getUnit());
+    }
+
+    @Test
+    @DisplayName("Soft delete reports the rows it hid, they stay in the table but no query returns them")
+    void softDeleteByIds() {
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(2, productRepository.softDeleteByIds(List.of("083FFA7C04C24", "167794255273984", "missing"), now));
+        assertEquals(0, productRepository.softDeleteByIds(List.of("083FFA7C04C24"), now));
+
+        assertEquals(0, productRepository.count());
+        assertTrue(productRepository.findById("083FFA7C04C24").isEmpty());
+        assertEquals(0, productRepository.findAllViews(PageRequest.of(0, 5)).getTotalElements());
+        assertEquals(0, productRepository.adjustQuantity("083FFA7C04C24", 1));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product WHERE deleted_at IS NOT NULL", Long.class));
+    }
+
+    @Test
+    @DisplayName("Set-based writes bump the version and a stale version blocks the conditional delete")
+    void versionGuards() {
+        productRepository.adjustQuantity("083FFA7C04C24", 3);
+
+        assertEquals(1, productRepository.findById("083FFA7C04C24").orElseThrow().getVersion());
+        assertEquals(0, productRepository.softDeleteByIdAndVersion("083FFA7C04C24", 0, LocalDateTime.now()));
+        assertEquals(1, productRepository.softDeleteByIdAndVersion("083FFA7C04C24", 1, LocalDateTime.now()));
+    }
+}
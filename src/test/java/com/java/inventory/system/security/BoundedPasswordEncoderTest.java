@@ -0,0 +1,161 @@
+package com.java.inventory.system.security;
+
+import com.java.inventory.system.exception.BaseException;
+import com.java.inventory.system.model.User;
+import com.java.inventory.system.repository.UserRepository;
+import com.java.inventory.system.service.CustomUserDetailsService;
+import com.java.inventory.system.service.UserCacheService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_CLIENT_TOO_MANY_LOGINS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private static final int REQUEST_THREADS = 16;
+    private static final int LOGINS = 100;
+    private static final int CATALOG_REQUESTS = 40;
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(8);
+    private final String hash = bcrypt.encode("secret");
+
+    @Test
+    @DisplayName("Load test: a login burst does not hold up catalog requests sharing the request threads")
+    void loginBurstLeavesCatalogLatencyAlone() throws Exception {
+        long inline = catalogLatencyDuringLoginBurst(password -> bcrypt.matches(password, hash));
+
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, 8, 2, 2, 10_000);
+        AtomicInteger refused = new AtomicInteger();
+        long isolated = catalogLatencyDuringLoginBurst(password -> {
+            try {
+                return bounded.matches(password, hash);
+            } catch (BaseException e) {
+                assertEquals(ERR_CLIENT_TOO_MANY_LOGINS, e.getError());
+                refused.incrementAndGet();
+                return false;
+            }
+        });
+        bounded.shutdown();
+
+        // hashing on the request threads queues the catalog behind the whole burst
+        assertTrue(inline > 4 * isolated, "slowest catalog request: inline " + inline + " ms, bounded " + isolated + " ms");
+        assertTrue(isolated < 250, "slowest catalog request with bounded hashing: " + isolated + " ms");
+        assertTrue(refused.get() > LOGINS / 2, "refused logins: " + refused.get());
+    }
+
+    @Test
+    @DisplayName("Hashes beyond the pool and queue are refused right away with 429")
+    void overflowIsRefused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(slow, 10, 1, 1, 10_000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        Future<Boolean> running = callers.submit(() -> bounded.matches("a", hash));
+        Thread.sleep(100);
+        Future<Boolean> queued = callers.submit(() -> bounded.matches("b", hash));
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        BaseException refused = assertThrows(BaseException.class, () -> bounded.matches("c", hash));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertEquals(ERR_CLIENT_TOO_MANY_LOGINS, refused.getError());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        callers.shutdown();
+        bounded.shutdown();
+    }
+
+    @Test
+    @DisplayName("A login with a password hashed at another cost stores it again at the configured cost")
+    void rehashesOnLogin() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = User.builder().username("alice").password(new BCryptPasswordEncoder(4).encode("secret"))
+                .roles("ADMIN").build();
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+
+        CustomUserDetailsService userDetailsService = userDetailsService(userRepository);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 5, 1, 4, 10_000);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(bounded);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertTrue(saved.getValue().getPassword().startsWith("$2a$05$"), saved.getValue().getPassword());
+
+        // at the configured cost already, nothing to do
+        UserRepository unchanged = mock(UserRepository.class);
+        when(unchanged.findByUsername("alice")).thenReturn(Optional.of(saved.getValue()));
+        CustomUserDetailsService second = userDetailsService(unchanged);
+        provider = new DaoAuthenticationProvider(second);
+        provider.setPasswordEncoder(bounded);
+        provider.setUserDetailsPasswordService(second);
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+        verify(unchanged, never()).save(any());
+        bounded.shutdown();
+    }
+
+    private static CustomUserDetailsService userDetailsService(UserRepository userRepository) {
+        return new CustomUserDetailsService(userRepository, new UserCacheService(userRepository,
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), 100, 60));
+    }
+
+    /**
+     * Fires {@link #LOGINS} logins at a pool standing in for Tomcat's workers, then catalog requests every 10 ms,
+     * and returns the slowest catalog request from submission to completion.
+     */
+    private static long catalogLatencyDuringLoginBurst(Predicate<String> login) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < LOGINS; i++) {
+            logins.add(requestThreads.submit(() -> login.test("secret")));
+        }
+        List<Future<Long>> catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG_REQUESTS; i++) {
+            long submitted = System.nanoTime();
+            catalog.add(requestThreads.submit(() -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted)));
+            Thread.sleep(10);
+        }
+        long slowest = 0;
+        for (Future<Long> request : catalog) {
+            slowest = Math.max(slowest, request.get(60, TimeUnit.SECONDS));
+        }
+        for (Future<?> request : logins) {
+            request.get(60, TimeUnit.SECONDS);
+        }
+        requestThreads.shutdown();
+        return slowest;
+    }
+}
@@ -0,0 +1,92 @@
+package com.java.inventory.system.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "replace-with-a-strong-random-secret-256-bit-base64";
+    private static final long ONE_HOUR = 3_600_000;
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, ONE_HOUR, 100, clock);
+
+    @Test
+    @DisplayName("A valid token yields its user and roles, repeated calls reuse the verified principal")
+    void verifiesOnceAndCaches() {
+        String token = jwtUtil.generateToken("alice", "ROLE_USER, ROLE_ADMIN");
+
+        JwtPrincipal first = jwtUtil.authenticate(token);
+        JwtPrincipal second = jwtUtil.authenticate(token);
+
+        assertEquals("alice", first.username());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+                first.authorities());
+        assertSame(first, second);
+        // another token with the same roles shares the authority list
+        clock.instant = clock.instant.plusSeconds(1);
+        assertSame(first.authorities(), jwtUtil.authenticate(jwtUtil.generateToken("bob", "ROLE_USER, ROLE_ADMIN"))
+                .authorities());
+    }
+
+    @Test
+    @DisplayName("Tampered, foreign and malformed tokens are rejected")
+    void rejectsInvalidTokens() {
+        String token = jwtUtil.generateToken("alice", "ROLE_USER");
+        String[] parts = token.split("\\.");
+        String forged = jwtUtil.generateToken("alice", "ROLE_ADMIN").split("\\.")[1];
+
+        assertNull(jwtUtil.authenticate(parts[0] + "." + forged + "." + parts[2]));
+        assertNull(jwtUtil.authenticate(new JwtUtil(SECRET + "-other", ONE_HOUR, 100, clock)
+                .generateToken("alice", "ROLE_ADMIN")));
+        assertNull(jwtUtil.authenticate("not-a-jwt"));
+        assertNull(jwtUtil.authenticate(""));
+    }
+
+    @Test
+    @DisplayName("A cached token stops authenticating once its exp has passed")
+    void cachedTokenExpires() {
+        String token = jwtUtil.generateToken("alice", "ROLE_USER");
+        assertNotNull(jwtUtil.authenticate(token));
+
+        clock.instant = clock.instant.plusMillis(ONE_HOUR + 1);
+
+        assertNull(jwtUtil.authenticate(token));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
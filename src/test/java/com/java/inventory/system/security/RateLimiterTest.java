@@ -0,0 +1,204 @@
+package com.java.inventory.system.security;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimiter rateLimiter = new RateLimiter(redisTemplate, true, Map.of(
+            RateLimiter.RouteGroup.AUTH, new RateLimiter.Limit(3, 1),
+            RateLimiter.RouteGroup.PRODUCT_READ, new RateLimiter.Limit(5, 10),
+            RateLimiter.RouteGroup.PRODUCT_WRITE, new RateLimiter.Limit(2, 1)),
+            1000, clock::get);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("A bucket admits its capacity, refuses the rest until it refills, and never asks Redis")
+    void decidesLocally() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.1").allowed());
+        }
+        RateLimiter.Decision refused = rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.1");
+        assertFalse(refused.allowed());
+        assertEquals(0, refused.remaining());
+        assertEquals(1, refused.retryAfterSeconds());
+
+        // other clients and other route groups have their own buckets
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.2").allowed());
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_READ, "ip:10.0.0.1").allowed());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.1").allowed());
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("A sync sends every used bucket in one call and charges what other instances took")
+    void syncReconcilesInOneBatch() {
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_READ, "u:alice");
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:bob");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).stream().map(key -> 1L).toList());
+        rateLimiter.sync();
+
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_READ, "u:alice");
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:bob");
+        // alice: 1 more taken here, 2 on another instance; bob: only ours
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            return keys.stream().map(key -> key.endsWith("u:alice") ? 4L : 2L).toList();
+        });
+        rateLimiter.sync();
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_READ, "u:alice").remaining());
+        assertFalse(rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_READ, "u:alice").allowed());
+        assertFalse(rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:bob").allowed());
+    }
+
+    @Test
+    @DisplayName("A bucket created after its counter has history is not charged for it on its first sync")
+    void firstSyncChargesNothing() {
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.9");
+        // requests from before this bucket existed, on this or other instances
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(40L));
+        rateLimiter.sync();
+
+        assertEquals(1, rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.9").remaining());
+
+        // from then on the others' share is charged: 1 ours, 1 theirs
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(42L));
+        rateLimiter.sync();
+        assertFalse(rateLimiter.tryAcquire(RateLimiter.RouteGroup.AUTH, "ip:10.0.0.9").allowed());
+    }
+
+    @Test
+    @DisplayName("When Redis is down the buckets keep limiting and the counts go out with the next sync")
+    void keepsCountsWhileRedisIsDown() {
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:carol");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        rateLimiter.sync();
+
+        rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:carol");
+        assertFalse(rateLimiter.tryAcquire(RateLimiter.RouteGroup.PRODUCT_WRITE, "u:carol").allowed());
+
+        doAnswer(invocation -> List.of(2L)).when(redisTemplate)
+                .execute(any(RedisScript.class), anyList(), any(Object[].class));
+        rateLimiter.sync();
+        // the failed sync's token plus the one taken since
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(RateLimiter.KEY + "product_write:u:carol")),
+                eq("2"), any());
+    }
+
+    @Test
+    @DisplayName("The filter limits per user after login and per IP before, and refuses with 429 and headers")
+    void filterRefusesWith429() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+
+        MockHttpServletResponse allowed = call(filter, "PUT", "/v1/product/p1", "192.168.1.5", "dave");
+        call(filter, "PUT", "/v1/product/p1", "192.168.1.5", "dave");
+        assertEquals("1", allowed.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("2", allowed.getHeader(RateLimitFilter.LIMIT_HEADER));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(request("PUT", "/v1/product/p1", "192.168.1.5", "dave"), refused, chain);
+        assertEquals(429, refused.getStatus());
+        assertEquals("1", refused.getHeader("Retry-After"));
+        assertNull(chain.getRequest(), "the request must not reach the controller");
+
+        // same address, anonymous: its own bucket
+        assertEquals(200, call(filter, "PUT", "/v1/product/p1", "192.168.1.5", null).getStatus());
+        // not a limited route
+        MockHttpServletResponse health = call(filter, "GET", "/api/health", "192.168.1.5", null);
+        assertNull(health.getHeader(RateLimitFilter.LIMIT_HEADER));
+    }
+
+    @Test
+    @DisplayName("Behind the proxy, anonymous clients are told apart by X-Forwarded-For, not the proxy's address")
+    void forwardedClientsGetOwnBuckets() throws Exception {
+        // what server.forward-headers-strategy=native installs in front of the filters
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+        remoteIp.init(new MockFilterConfig());
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+
+        assertEquals(200, forwarded(remoteIp, filter, "203.0.113.7").getStatus());
+        assertEquals(200, forwarded(remoteIp, filter, "203.0.113.7").getStatus());
+        assertEquals(429, forwarded(remoteIp, filter, "203.0.113.7").getStatus());
+        assertEquals(200, forwarded(remoteIp, filter, "198.51.100.23").getStatus());
+    }
+
+    private MockHttpServletResponse forwarded(RemoteIpFilter remoteIp, RateLimitFilter filter, String client)
+            throws Exception {
+        MockHttpServletRequest request = request("PUT", "/v1/product/p1", "10.0.0.2", null);
+        request.addHeader("X-Forwarded-For", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+            }
+        }, remoteIp, filter).doFilter(request, response);
+        return response;
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String method, String uri, String address,
+                                                String username) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, address, username), response, chain);
+        assertNotNull(chain.getRequest());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String address, String username) {
+        SecurityContextHolder.clearContext();
+        if (username != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
@@ -0,0 +1,130 @@
+package com.java.inventory.system.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.java.inventory.system.constant.InventoryConstant.TOKEN_REVOCATION_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> mock(Cursor.class));
+        revocationList = newInstance();
+    }
+
+    @Test
+    @DisplayName("Unrevoked tokens are answered in-process, a revoked one is confirmed in Redis")
+    void onlyProbableHitsAskRedis() {
+        JwtPrincipal kept = principal("alice", Instant.now());
+        JwtPrincipal loggedOut = principal("alice", Instant.now());
+
+        revocationList.revokeToken(loggedOut.tokenId(), loggedOut.expiresAt());
+        when(redisTemplate.hasKey(TokenRevocationList.TOKEN_KEY + loggedOut.tokenId())).thenReturn(true);
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(revocationList.isRevoked(principal("user" + i, Instant.now())));
+        }
+        assertFalse(revocationList.isRevoked(kept));
+        assertTrue(revocationList.isRevoked(loggedOut));
+        assertTrue(revocationList.isRevoked(loggedOut));
+
+        // one Redis round trip for the revoked token, the second check was answered from the verdict cache
+        verify(redisTemplate).hasKey(anyString());
+        verify(values, never()).get(anyString());
+        verify(redisTemplate).convertAndSend(TOKEN_REVOCATION_CHANNEL, "t:" + loggedOut.tokenId());
+    }
+
+    @Test
+    @DisplayName("Revoking a user rejects the tokens issued before, not the ones issued after")
+    void revokeUserCutsOffOlderTokens() {
+        JwtPrincipal before = principal("bob", Instant.now().minusSeconds(60));
+        assertFalse(revocationList.isRevoked(before));
+
+        revocationList.revokeUser("bob");
+        when(values.get(TokenRevocationList.USER_KEY + "bob")).thenReturn(String.valueOf(System.currentTimeMillis()));
+
+        assertTrue(revocationList.isRevoked(before));
+        assertFalse(revocationList.isRevoked(principal("bob", Instant.now().plusSeconds(60))));
+        verify(values).set(eq(TokenRevocationList.USER_KEY + "bob"), anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Revocations reach other instances over pub/sub and survive a restart through the scan")
+    void replicatesAndRebuilds() {
+        JwtPrincipal token = principal("carol", Instant.now());
+        when(redisTemplate.hasKey(TokenRevocationList.TOKEN_KEY + token.tokenId())).thenReturn(true);
+        TokenRevocationList otherInstance = newInstance();
+
+        assertFalse(otherInstance.isRevoked(token));
+        otherInstance.onMessage(new DefaultMessage(TOKEN_REVOCATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ("t:" + token.tokenId()).getBytes(StandardCharsets.UTF_8)), null);
+        assertTrue(otherInstance.isRevoked(token));
+
+        Cursor<String> tokenKeys = cursor(TokenRevocationList.TOKEN_KEY + token.tokenId());
+        Cursor<String> userKeys = cursor();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(tokenKeys, userKeys);
+        TokenRevocationList restarted = newInstance();
+        assertTrue(restarted.isRevoked(token));
+    }
+
+    @Test
+    @DisplayName("When Redis cannot confirm a probable hit the token is rejected")
+    void failsClosed() {
+        JwtPrincipal token = principal("dave", Instant.now());
+        revocationList.revokeToken(token.tokenId(), token.expiresAt());
+        when(redisTemplate.hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertTrue(revocationList.isRevoked(token));
+    }
+
+    private TokenRevocationList newInstance() {
+        TokenRevocationList instance = new TokenRevocationList(redisTemplate, mock(RedisMessageListenerContainer.class),
+                3_600_000, 10_000, 0.001);
+        instance.rebuild();
+        return instance;
+    }
+
+    private static JwtPrincipal principal(String username, Instant issuedAt) {
+        return new JwtPrincipal(username, List.of(), UUID.randomUUID().toString(), issuedAt,
+                issuedAt.plusSeconds(3600));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<String> cursor(String... keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        var iterator = List.of(keys).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
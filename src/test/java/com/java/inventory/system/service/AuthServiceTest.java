@@ -0,0 +1,74 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.dto.AuthenticationRequest;
+import com.java.inventory.system.exception.BaseException;
+import com.java.inventory.system.model.User;
+import com.java.inventory.system.repository.UserRepository;
+import com.java.inventory.system.security.BoundedPasswordEncoder;
+import com.java.inventory.system.security.JwtUtil;
+import com.java.inventory.system.security.TokenRevocationList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_CLIENT_CREDENTIALS_EXISTS;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_CLIENT_INVALID_CREDENTIALS;
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_CLIENT_TOO_MANY_LOGINS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The status an auth failure is reported with; a {@link BaseException} thrown inside keeps its own.
+ */
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final AuthService authService = new AuthService(userRepository, authenticationManager,
+            mock(BoundedPasswordEncoder.class), mock(OtpService.class), mock(JwtUtil.class),
+            mock(AuthSessionStore.class), mock(TokenRevocationList.class), mock(UserCacheService.class));
+
+    @Test
+    @DisplayName("Registering a taken username is a 409 conflict with its message, not a 500")
+    void registerConflict() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(
+                User.builder().id(1L).username("alice").isVerified(true).build()));
+
+        BaseException error = assertThrows(BaseException.class, () -> authService.register(request()));
+
+        assertEquals(ERR_CLIENT_CREDENTIALS_EXISTS, error.getError());
+        assertEquals(HttpStatus.CONFLICT, error.getError().getHttpStatusCode());
+        assertEquals("Username already exists", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Login reports saturated password hashing as 429 and wrong credentials as invalid")
+    void loginKeepsStatus() {
+        when(authenticationManager.authenticate(any(Authentication.class)))
+                .thenThrow(new BaseException(ERR_CLIENT_TOO_MANY_LOGINS));
+        assertEquals(ERR_CLIENT_TOO_MANY_LOGINS,
+                assertThrows(BaseException.class, () -> authService.login(request())).getError());
+
+        when(authenticationManager.authenticate(any(Authentication.class)))
+                .thenThrow(new BadCredentialsException("bad"));
+        assertEquals(ERR_CLIENT_INVALID_CREDENTIALS,
+                assertThrows(BaseException.class, () -> authService.login(request())).getError());
+    }
+
+    private static AuthenticationRequest request() {
+        AuthenticationRequest request = new AuthenticationRequest();
+        request.setUsername("alice");
+        request.setPassword("secret");
+        request.setEmail("alice@example.com");
+        request.setMobile("+639000000000");
+        return request;
+    }
+}
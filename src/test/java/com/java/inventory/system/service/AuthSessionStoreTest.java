@@ -0,0 +1,70 @@
+package com.java.inventory.system.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class AuthSessionStoreTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final AuthSessionStore store = new AuthSessionStore(redisTemplate);
+
+    @Test
+    @DisplayName("Each step of the login flow is one script call")
+    void oneRoundTripPerStep() {
+        String tempToken = store.issue("alice");
+        assertNotNull(tempToken);
+        String sessionKey = AuthSessionStore.SESSION_KEY + tempToken;
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(sessionKey)), any(Object[].class)))
+                .thenReturn(List.of(1L, "alice", 2L, 0L));
+        AuthSessionStore.OtpResult stored = store.storeOtp(tempToken, "123456", 3, 10);
+        assertEquals(new AuthSessionStore.OtpResult(AuthSessionStore.OtpStatus.OK, "alice", 2, 0), stored);
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(sessionKey)), any(Object[].class)))
+                .thenReturn(List.of(1L, "alice"));
+        AuthSessionStore.OtpResult verified = store.verifyOtp(tempToken, "123456");
+        assertEquals(AuthSessionStore.OtpStatus.OK, verified.status());
+        assertEquals("alice", verified.username());
+
+        // issue, store and verify: no separate reads or deletes in between
+        verify(redisTemplate, times(3)).execute(any(RedisScript.class), eq(List.of(sessionKey)), any(Object[].class));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Script replies map to refused, unknown session and remaining cooldown")
+    void mapsRefusals() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, "alice", 3L, 61_000L));
+        AuthSessionStore.OtpResult limited = store.storeOtp("token", "123456", 3, 10);
+        assertEquals(new AuthSessionStore.OtpResult(AuthSessionStore.OtpStatus.REFUSED, "alice", 3, 61_000), limited);
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(-1L));
+        assertEquals(AuthSessionStore.OtpStatus.NO_SESSION, store.storeOtp("gone", "123456", 3, 10).status());
+        assertEquals(AuthSessionStore.OtpStatus.NO_SESSION, store.verifyOtp("gone", "123456").status());
+    }
+
+    @Test
+    @DisplayName("A request without a temp token never reaches Redis")
+    void missingTokenIsNoSession() {
+        assertEquals(AuthSessionStore.OtpStatus.NO_SESSION, store.verifyOtp(null, "123456").status());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
@@ -0,0 +1,110 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.ArchivePage;
+import com.java.inventory.system.model.ArchivedProduct;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "app.archive.chunk-size=2")
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@Import(ProductArchiveService.class)
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every archive chunk commits on its own
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductArchiveServiceTest {
+
+    @Autowired
+    private ProductArchiveService archiveService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Products deleted before the cutoff are moved to the archive chunk by chunk, the rest stay")
+    void archivesExpiredDeletes() {
+        List<String> ids = List.of("A1", "A2", "A3", "A4");
+        ids.forEach(id -> productRepository.saveAndFlush(product(id, "Old Console " + id)));
+        LocalDateTime now = LocalDateTime.now();
+        softDelete(List.of("A1", "A2", "A3", "083FFA7C04C24"), now.minusDays(40));
+        softDelete(List.of("A4"), now.minusDays(1));
+
+        assertEquals(4, archiveService.archive(now.minusDays(30)));
+
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class));
+        assertEquals(1, productRepository.count()); // A4 waits for its retention period, hidden meanwhile
+        assertEquals(0, archiveService.archive(now.minusDays(30)));
+
+        ArchivePage consoles = archiveService.findArchived("old console", "gadgets",
+                PageRequest.of(0, 10, Sort.by("itemName")));
+        assertEquals(3, consoles.totalItems());
+        ArchivedProduct first = consoles.content().get(0);
+        assertEquals("A1", first.getId());
+        assertEquals(1, first.getVersion()); // the soft delete bumped it
+        assertTrue(first.getDeletedAt().isBefore(first.getArchivedAt()));
+
+        assertEquals("Steam Deck", archiveService.findArchived("steam", null, PageRequest.of(0, 10))
+                .content().get(0).getItemName());
+    }
+
+    @Test
+    @DisplayName("A deleted product's name is free for a new product before and after archiving")
+    void deletedNameCanBeReused() {
+        softDelete(List.of("083FFA7C04C24"), LocalDateTime.now().minusDays(40));
+        productRepository.saveAndFlush(product("NEW1", "Steam Deck"));
+
+        archiveService.archive(LocalDateTime.now());
+        productRepository.saveAndFlush(product("NEW2", "Steam Deck 2"));
+
+        assertEquals(List.of("167794255273984", "NEW1", "NEW2"),
+                productRepository.findAll(Sort.by("id")).stream().map(Product::getId).toList());
+        assertEquals(1, archiveService.findArchived("steam deck", null, PageRequest.of(0, 10)).totalItems());
+    }
+
+    private void softDelete(List<String> ids, LocalDateTime deletedAt) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> productRepository.softDeleteByIds(ids, deletedAt));
+    }
+
+    private static Product product(String id, String name) {
+        return Product.builder()
+                .id(id)
+                .itemName(name)
+                .description(name)
+                .category("Gadgets")
+                .unitPrice(BigDecimal.TEN)
+                .quantity(1)
+                .unit("Pieces")
+                .build();
+    }
+}
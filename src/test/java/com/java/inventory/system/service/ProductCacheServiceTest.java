@@ -0,0 +1,127 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_CACHE;
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_INVALIDATION_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.data.redis.cache.CacheKeyPrefix.SEPARATOR;
+
+class ProductCacheServiceTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ConcurrentMapCacheManager l2 = new ConcurrentMapCacheManager(PRODUCT_CACHE);
+    private ProductCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new ProductCacheService(l2, redisTemplate, mock(RedisMessageListenerContainer.class),
+                new ChannelTopic(PRODUCT_INVALIDATION_CHANNEL), 100, 60);
+    }
+
+    @Test
+    @DisplayName("Second read is served from L1 without calling the loader")
+    void readThrough() {
+        AtomicInteger loads = new AtomicInteger();
+        Product product = product("083FFA7C04C24");
+
+        cacheService.get(product.getId(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(product);
+        });
+        Optional<Product> cached = cacheService.get(product.getId(), Optional::empty);
+
+        assertTrue(cached.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1L, cacheService.getStats().get("l1Hits"));
+        assertEquals(1L, cacheService.getStats().get("misses"));
+    }
+
+    @Test
+    @DisplayName("Evict clears both tiers and broadcasts the id")
+    void evictBroadcasts() {
+        Product product = product("083FFA7C04C24");
+        cacheService.put(product);
+
+        cacheService.evict(product.getId());
+
+        assertTrue(cacheService.get(product.getId(), Optional::empty).isEmpty());
+        verify(redisTemplate).convertAndSend(PRODUCT_INVALIDATION_CHANNEL, product.getId());
+    }
+
+    @Test
+    @DisplayName("Invalidation message from another replica drops only the L1 copy")
+    void remoteInvalidation() {
+        Product product = product("083FFA7C04C24");
+        cacheService.put(product);
+
+        cacheService.onMessage(new DefaultMessage(PRODUCT_INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                product.getId().getBytes(StandardCharsets.UTF_8)), null);
+        cacheService.get(product.getId(), Optional::empty);
+
+        assertEquals(0L, cacheService.getStats().get("l1Hits"));
+        assertEquals(1L, cacheService.getStats().get("l2Hits"));
+    }
+
+    @Test
+    @DisplayName("A load that overlaps a write is returned but not cached")
+    void noStaleFill() {
+        Product before = product("083FFA7C04C24");
+        AtomicInteger loads = new AtomicInteger();
+
+        Optional<Product> loaded = cacheService.get(before.getId(), () -> {
+            loads.incrementAndGet();
+            // the writer commits and evicts while this read still holds the old row
+            cacheService.evict(before.getId());
+            return Optional.of(before);
+        });
+        cacheService.get(before.getId(), () -> {
+            loads.incrementAndGet();
+            return Optional.of(before);
+        });
+
+        assertTrue(loaded.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("An invalidation from another replica also drops what this one just loaded into Redis")
+    void remoteInvalidationAfterFill() {
+        Product product = product("083FFA7C04C24");
+        cacheService.get(product.getId(), () -> Optional.of(product));
+
+        cacheService.onMessage(new DefaultMessage(PRODUCT_INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                product.getId().getBytes(StandardCharsets.UTF_8)), null);
+
+        verify(redisTemplate).delete(List.of(PRODUCT_CACHE + SEPARATOR + product.getId()));
+    }
+
+    private Product product(String id) {
+        return Product.builder()
+                .id(id)
+                .itemName("Steam Deck")
+                .description("Steam Handheld")
+                .category("Gadgets")
+                .unitPrice(BigDecimal.TEN)
+                .quantity(1)
+                .unit("Pieces")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductDatasetGenerator.class, ProductIdGenerator.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the workers commit on their own connections
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductDatasetGeneratorTest {
+
+    private static final String CONTENT = "SELECT item_name, description, category, unit_price, quantity, unit " +
+            "FROM product ORDER BY item_name";
+
+    @Autowired
+    private ProductDatasetGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Parallel multi-row inserts write every row, with a partial last batch and skewed categories")
+    void generatesRequestedRows() {
+        Map<String, Object> report = generator.generate(spec(5_050, 1L));
+
+        assertEquals(5_050L, report.get("rows"));
+        assertEquals(5_050L, generator.countProducts());
+        assertEquals(5_050L, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM product", Long.class));
+
+        List<Long> perCategory = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM product GROUP BY category ORDER BY COUNT(*) DESC", Long.class);
+        assertTrue(perCategory.get(0) > 3 * perCategory.get(4), perCategory.toString());
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product WHERE category_key <> LOWER(category) OR item_name_key IS NULL", Long.class));
+    }
+
+    @Test
+    @DisplayName("The same seed produces the same data, a second run appends without name clashes")
+    void deterministicAndAppendable() {
+        generator.generate(spec(1_200, 7L));
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(CONTENT);
+
+        jdbcTemplate.update("DELETE FROM product");
+        generator.generate(spec(1_200, 7L));
+        assertEquals(first, jdbcTemplate.queryForList(CONTENT));
+
+        generator.generate(spec(1_200, 7L));
+        assertEquals(2_400L, generator.countProducts());
+    }
+
+    private static ProductDatasetGenerator.Spec spec(long rows, long seed) {
+        return ProductDatasetGenerator.Spec.builder()
+                .rows(rows)
+                .threads(4)
+                .batchSize(100)
+                .seed(seed)
+                .skew(1.0)
+                .progressMs(1000)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.InventorySystemApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@Import({ProductExportService.class, ObjectMapper.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // export opens its own read-only transaction
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Test
+    @DisplayName("CSV export writes the import header followed by one line per product")
+    void exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ProductExportService.Format.CSV, null, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,itemName,description,category,unitPrice,quantity,unit", lines[0]);
+        assertEquals(3, lines.length);
+    }
+
+    @Test
+    @DisplayName("Gzip NDJSON export filtered by category")
+    void exportGzipNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ProductExportService.Format.NDJSON, "gadgets", true, out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String[] lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(2, lines.length);
+            assertTrue(lines[0].startsWith("{"));
+        }
+    }
+}
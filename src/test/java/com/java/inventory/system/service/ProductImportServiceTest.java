@@ -0,0 +1,139 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.ProductImportReport;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@Import({ProductImportService.class, ProductExportService.class, ProductIdGenerator.class,
+        ProductImportServiceTest.Config.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class,
+        ProductCacheService.class, ProductSearchIndex.class, ProductSearchCache.class,
+        ProductQuantityBuffer.class, ProductStatsService.class})
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("NDJSON rows are validated, deduplicated and upserted by id")
+    void importNdjson() throws Exception {
+        String body = """
+                {"id":"NEW0000000001","itemName":"Rog Ally X","description":"Handheld PC","category":"Gadgets","unitPrice":10,"quantity":1,"unit":"Pieces"}
+                {"id":"083FFA7C04C24","itemName":"Steam Deck","description":"Steam Handheld","category":"Gadgets","unitPrice":99,"quantity":7,"unit":"Pieces"}
+                {"id":"NEW0000000002","itemName":"rog ally x","description":"dup","category":"Gadgets","unitPrice":10,"quantity":1,"unit":"Pieces"}
+                {"id":"NEW0000000003","itemName":"","description":"Missing name","category":"Gadgets","unitPrice":10,"quantity":0,"unit":"Pieces"}
+                not json
+                {"id":"NEW0000000004","itemName":"Lenovo Legion Go","description":"taken","category":"Gadgets","unitPrice":10,"quantity":1,"unit":"Pieces"}
+                """;
+
+        ProductImportReport report = importService.importProducts(MediaType.APPLICATION_NDJSON, stream(body));
+
+        assertEquals(6, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertEquals(7, productRepository.findById("083FFA7C04C24").orElseThrow().getQuantity());
+        assertEquals(3, productRepository.count());
+    }
+
+    @Test
+    @DisplayName("CSV import maps columns by header name and handles quoted fields")
+    void importCsv() throws Exception {
+        String body = """
+                itemName,id,description,category,unitPrice,quantity,unit
+                "Switch 2, OLED",NEW0000000005,"The ""new"" one",Gadgets,450.50,3,Pieces
+                """;
+
+        ProductImportReport report = importService.importProducts(ProductImportService.TEXT_CSV, stream(body));
+
+        assertEquals(1, report.getImported());
+        assertEquals("The \"new\" one", productRepository.findById("NEW0000000005").orElseThrow().getDescription());
+    }
+
+    @Test
+    @DisplayName("Rows without id get a generated one")
+    void importGeneratesMissingIds() throws Exception {
+        String body = """
+                id,itemName,description,category,unitPrice,quantity,unit
+                ,Rog Ally X,Handheld PC,Gadgets,10,1,Pieces
+                """;
+
+        ProductImportReport report = importService.importProducts(ProductImportService.TEXT_CSV, stream(body));
+
+        assertEquals(1, report.getImported());
+        Product imported = productRepository.findByItemNameKey("rog ally x").orElseThrow();
+        assertEquals(13, imported.getId().length());
+    }
+
+    @Test
+    @DisplayName("Quoted fields with line breaks survive an export and import round trip")
+    void exportedCsvImportsBack() throws Exception {
+        String body = "id,itemName,description,category,unitPrice,quantity,unit\n"
+                + "NEW0000000006,Rog Ally X,\"First line\nSecond, \"\"quoted\"\" line\",Gadgets,10,1,Pieces\n"
+                + "NEW0000000007,,Missing name,Gadgets,10,1,Pieces\n";
+
+        ProductImportReport imported = importService.importProducts(ProductImportService.TEXT_CSV, stream(body));
+
+        assertEquals(1, imported.getImported());
+        // the error points at the physical line, after the two lines of the record before
+        assertEquals(4, imported.getErrors().get(0).getLine());
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.export(ProductExportService.Format.CSV, null, false, exported);
+        ProductImportReport reimported = importService.importProducts(ProductImportService.TEXT_CSV,
+                new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(3, reimported.getTotalRows());
+        assertEquals(0, reimported.getFailed());
+        assertEquals("First line\nSecond, \"quoted\" line",
+                productRepository.findById("NEW0000000006").orElseThrow().getDescription());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
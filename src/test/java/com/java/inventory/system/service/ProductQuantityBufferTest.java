@@ -0,0 +1,194 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INSUFFICIENT_STOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "app.stock.write-behind.enabled=true",
+        "app.stock.write-behind.max-pending=1000",
+        "app.stock.write-behind.flush-ms=3600000" // the tests decide when to flush
+})
+@Sql("/testData/product.sql")
+@Sql(statements = "UPDATE product SET quantity = 500 WHERE id = '083FFA7C04C24'")
+@ActiveProfiles("test")
+@Import({ProductQuantityBuffer.class, ProductStockService.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class,
+        ProductCacheService.class, ProductSearchIndex.class, ProductSearchCache.class, ProductStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // flushes commit on their own
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductQuantityBufferTest {
+
+    private static final String HOT_PRODUCT = "083FFA7C04C24";
+    private static final String OTHER_PRODUCT = "167794255273984";
+
+    @Autowired
+    private ProductQuantityBuffer buffer;
+
+    @Autowired
+    private ProductStockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Concurrent scans are checked in memory and reach the database as a single row write")
+    void concurrentDeltasCoalesce() throws Exception {
+        int threads = 32;
+        int picksPerThread = 25; // 800 picks of 1 against 500 in stock
+        AtomicInteger picked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < picksPerThread; i++) {
+                    try {
+                        stockService.adjustStock(HOT_PRODUCT, -1);
+                        picked.incrementAndGet();
+                    } catch (ProductSvcException e) {
+                        assertEquals(ERR_INVENTORY_MS_INSUFFICIENT_STOCK, e.getError());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(500, picked.get());
+        assertEquals(300, rejected.get());
+        assertEquals(500, quantity(HOT_PRODUCT));
+
+        long versionBefore = version(HOT_PRODUCT);
+        buffer.flush();
+
+        assertEquals(0, quantity(HOT_PRODUCT));
+        assertEquals(versionBefore + 1, version(HOT_PRODUCT));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reads include pending deltas, one the database refuses after an absolute write is kept and reported")
+    void readsSeePendingDeltas() {
+        buffer.adjust(HOT_PRODUCT, 7);
+        buffer.adjust(OTHER_PRODUCT, 4);
+
+        Product stored = productRepository.findById(HOT_PRODUCT).orElseThrow();
+        assertEquals(500, stored.getQuantity());
+        assertEquals(507, buffer.apply(stored).getQuantity());
+
+        buffer.flush(List.of(OTHER_PRODUCT));
+        assertEquals(5, quantity(OTHER_PRODUCT));
+        assertEquals(500, quantity(HOT_PRODUCT));
+
+        buffer.adjust(HOT_PRODUCT, -507);
+        jdbcTemplate.update("UPDATE product SET quantity = 100 WHERE id = ?", HOT_PRODUCT);
+        buffer.flush();
+
+        assertEquals(100, quantity(HOT_PRODUCT));
+        assertTrue(buffer.isEmpty());
+        assertEquals(1L, buffer.getStats().get("refusedDeltas"));
+        assertEquals(Map.of(HOT_PRODUCT, -500), buffer.getStats().get("refused"));
+        assertEquals(100, buffer.apply(productRepository.findById(HOT_PRODUCT).orElseThrow()).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Reaching max-pending triggers a flush without waiting for the timer")
+    void flushesAtThreshold() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            buffer.adjust(HOT_PRODUCT, 1);
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (quantity(HOT_PRODUCT) != 1500 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1500, quantity(HOT_PRODUCT));
+    }
+
+    @Test
+    @DisplayName("Flushing some products keeps the others' deltas counting towards max-pending")
+    void partialFlushKeepsCount() throws Exception {
+        buffer.flush();
+        for (int i = 0; i < 600; i++) {
+            buffer.adjust(HOT_PRODUCT, 1);
+        }
+        for (int i = 0; i < 300; i++) {
+            buffer.adjust(OTHER_PRODUCT, 1);
+        }
+
+        buffer.flush(List.of(HOT_PRODUCT));
+        assertEquals(300, buffer.getStats().get("pendingDeltas"));
+
+        for (int i = 0; i < 700; i++) {
+            buffer.adjust(OTHER_PRODUCT, 1);
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (quantity(OTHER_PRODUCT) != 1001 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1001, quantity(OTHER_PRODUCT));
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Pending deltas are written on shutdown")
+    void flushesOnShutdown() {
+        buffer.adjust(HOT_PRODUCT, -3);
+        buffer.adjust(OTHER_PRODUCT, 2);
+
+        buffer.flushOnShutdown();
+
+        assertEquals(497, quantity(HOT_PRODUCT));
+        assertEquals(3, quantity(OTHER_PRODUCT));
+        assertThrows(ProductSvcException.class, () -> buffer.adjust(HOT_PRODUCT, -498));
+    }
+
+    private int quantity(String id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE id = ?", Integer.class, id);
+    }
+
+    private long version(String id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM product WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,126 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.dto.ProductView;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_CACHE;
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_INVALIDATION_CHANNEL;
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_SEARCH_INVALIDATION_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSearchCacheTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 5, Sort.by("itemName"));
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final Product deck = product("083FFA7C04C24", "Steam Deck", "Gadgets");
+    private final Product tea = product("0000000000001", "Green Tea", "Grocery");
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private ProductSearchCache searchCache;
+
+    @BeforeEach
+    void setUp() {
+        ProductCacheService productCacheService = new ProductCacheService(new ConcurrentMapCacheManager(PRODUCT_CACHE),
+                redisTemplate, mock(RedisMessageListenerContainer.class), new ChannelTopic(PRODUCT_INVALIDATION_CHANNEL),
+                100, 60);
+        searchCache = new ProductSearchCache(productCacheService, productRepository, redisTemplate,
+                mock(RedisMessageListenerContainer.class), true, 100, 60);
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(List.of(deck));
+    }
+
+    @Test
+    @DisplayName("A repeated search is answered from the caches, spelling of the filters does not matter")
+    void repeatedSearchSkipsDatabase() {
+        search("steam", "Gadgets");
+        search("steam", "Gadgets");
+        Page<ProductView> page = search(" STEAM ", "gadgets ");
+
+        assertEquals(1, queries.get());
+        assertEquals(List.of(ProductView.of(deck)), page.getContent());
+        assertEquals(1, page.getTotalElements());
+        // the first hit hydrated the product, the second one found it cached
+        verify(productRepository).findByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("A write only invalidates searches that can see its category")
+    void writeBumpsItsCategory() {
+        search("steam", "Gadgets");
+        search("", null);
+
+        searchCache.invalidate(List.of("Grocery"));
+        search("steam", "Gadgets");
+        search("", null);
+
+        assertEquals(3, queries.get()); // the unfiltered search ran again, the Gadgets one did not
+        verify(redisTemplate).convertAndSend(PRODUCT_SEARCH_INVALIDATION_CHANNEL, "grocery");
+
+        searchCache.invalidate(List.of(" GADGETS"));
+        search("steam", "Gadgets");
+
+        assertEquals(4, queries.get());
+    }
+
+    @Test
+    @DisplayName("Invalidations from another instance and invalidateAll drop cached results")
+    void remoteAndFullInvalidation() {
+        search("steam", "Gadgets");
+
+        searchCache.onMessage(new DefaultMessage(PRODUCT_SEARCH_INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "gadgets".getBytes(StandardCharsets.UTF_8)), null);
+        search("steam", "Gadgets");
+        searchCache.invalidateAll();
+        search("steam", "Gadgets");
+
+        assertEquals(3, queries.get());
+        verify(productRepository, never()).findByIdIn(anyCollection());
+    }
+
+    private Page<ProductView> search(String name, String category) {
+        return searchCache.search(name, category, PAGE, () -> {
+            queries.incrementAndGet();
+            List<ProductView> content = name.isBlank() ? List.of(ProductView.of(tea), ProductView.of(deck))
+                    : List.of(ProductView.of(deck));
+            return new PageImpl<>(content, PAGE, content.size());
+        });
+    }
+
+    private static Product product(String id, String name, String category) {
+        return Product.builder()
+                .id(id)
+                .itemName(name)
+                .description(name)
+                .category(category)
+                .unitPrice(BigDecimal.TEN)
+                .quantity(1)
+                .unit("Pieces")
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_INDEX_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = newIndex();
+        index.index(product("167794255273984", "Lenovo Legion Go", "Handheld PC", "Gadgets"));
+        index.index(product("083FFA7C04C24", "Steam Deck", "Steam Handheld", "Gadgets"));
+        index.index(product("FDS125G67J2SW", "Steam Gift Card", "Wallet top up", "Vouchers"));
+    }
+
+    @Test
+    @DisplayName("Substring search matches item names case-insensitively and filters by category")
+    void substringSearch() {
+        Page<Product> page = index.search("STEAM", "gadgets", PageRequest.of(0, 5, Sort.by("itemName")));
+
+        assertEquals(List.of("Steam Deck"), page.map(Product::getItemName).getContent());
+    }
+
+    @Test
+    @DisplayName("Short queries and empty queries still work")
+    void shortQuery() {
+        assertEquals(2, index.search("st", null, PageRequest.of(0, 5)).getTotalElements());
+        assertEquals(3, index.search("", null, PageRequest.of(0, 5)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Fuzzy search tolerates typos and ranks the closest match first")
+    void fuzzySearch() {
+        Page<Product> page = index.fuzzySearch("stem deck", null, PageRequest.of(0, 5));
+
+        assertEquals("Steam Deck", page.getContent().get(0).getItemName());
+    }
+
+    @Test
+    @DisplayName("Updates replace old postings and deletes drop the product")
+    void incrementalUpdates() {
+        index.index(product("083FFA7C04C24", "Steam Deck OLED", "Steam Handheld", "Gadgets"));
+        assertEquals("Steam Deck OLED", index.search("oled", null, PageRequest.of(0, 5)).getContent().get(0).getItemName());
+
+        index.remove("083FFA7C04C24");
+        assertTrue(index.search("deck", null, PageRequest.of(0, 5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Facet counts follow the name filter and stay current after updates and deletes")
+    void facets() {
+        assertEquals(Map.of("Gadgets", 2L, "Vouchers", 1L), index.facets(null).category());
+        assertEquals(Map.of("Gadgets", 1L, "Vouchers", 1L), index.facets("steam").category());
+
+        index.index(product("083FFA7C04C24", "Steam Deck", "Steam Handheld", "Consoles"));
+        index.remove("FDS125G67J2SW");
+
+        assertEquals(Map.of("Consoles", 1L, "Gadgets", 1L), index.facets("").category());
+        assertEquals(Map.of("Pieces", 2L), index.facets("").unit());
+    }
+
+    @Test
+    @DisplayName("Writes on one instance reach the other instances' index, older versions and removed ids are ignored")
+    void replicatesOverPubSub() {
+        ProductSearchIndex other = newIndex();
+        index.indexAll(List.of(product("P1", "Switch OLED", "Console", "Gadgets").toBuilder().version(2L).build()));
+        index.remove("FDS125G67J2SW");
+        deliverBroadcasts(other);
+
+        assertEquals(List.of("Switch OLED"), other.search("switch", null, PageRequest.of(0, 5))
+                .map(Product::getItemName).getContent());
+
+        // a late change carrying version 1 does not undo version 2, a late change does not bring back a delete
+        ProductSearchIndex third = newIndex();
+        third.indexAll(List.of(product("P1", "Switch", "Console", "Gadgets").toBuilder().version(1L).build(),
+                product("FDS125G67J2SW", "Steam Gift Card", "Wallet top up", "Vouchers")));
+        deliverBroadcasts(other);
+        assertEquals("Switch OLED", other.search("switch", null, PageRequest.of(0, 5)).getContent().get(0).getItemName());
+        assertTrue(other.search("gift", null, PageRequest.of(0, 5)).isEmpty());
+
+        // an instance ignores its own broadcasts
+        index.remove("P1");
+        deliverBroadcasts(index);
+        assertTrue(index.search("switch", null, PageRequest.of(0, 5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Facet counts on other instances follow the writes made here")
+    void facetsReplicate() {
+        ProductSearchIndex other = newIndex();
+        index.index(product("083FFA7C04C24", "Steam Deck", "Steam Handheld", "Consoles"));
+        index.removeAll(List.of("FDS125G67J2SW", "167794255273984"));
+        deliverBroadcasts(other);
+
+        assertEquals(index.facets(null), other.facets(null));
+        assertEquals(Map.of("Consoles", 1L), other.facets("").category());
+        assertEquals(Map.of("Consoles", 1L), other.facets("steam").category());
+    }
+
+    @Test
+    @DisplayName("A rebuild drops documents that are no longer in the table")
+    void rebuildDropsMissedDeletes() {
+        when(productRepository.streamAll()).thenAnswer(invocation -> Stream.of(
+                product("167794255273984", "Lenovo Legion Go", "Handheld PC", "Gadgets")));
+
+        index.rebuild();
+
+        assertEquals(1, index.search("", null, PageRequest.of(0, 5)).getTotalElements());
+        assertEquals(Map.of("Gadgets", 1L), index.facets(null).category());
+    }
+
+    private ProductSearchIndex newIndex() {
+        return new ProductSearchIndex(productRepository, mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), true, 0.5, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new ObjectMapper());
+    }
+
+    // hands every message published so far to the target, as the listener container would
+    private void deliverBroadcasts(ProductSearchIndex target) {
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(PRODUCT_INDEX_CHANNEL), payloads.capture());
+        clearInvocations(redisTemplate);
+        for (String payload : payloads.getAllValues()) {
+            target.onMessage(new DefaultMessage(PRODUCT_INDEX_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    payload.getBytes(StandardCharsets.UTF_8)), null);
+        }
+    }
+
+    private Product product(String id, String name, String description, String category) {
+        return Product.builder()
+                .id(id)
+                .itemName(name)
+                .description(description)
+                .category(category)
+                .unitPrice(BigDecimal.TEN)
+                .quantity(1)
+                .unit("Pieces")
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.ProductRequest;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import com.java.inventory.system.util.ProductIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_PRODUCT_EXIST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Counts the JDBC statements of the write path with Hibernate statistics.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql("/testData/product.sql")
+@ActiveProfiles("test")
+@Import({ProductService.class, ProductIdGenerator.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class,
+        ProductCacheService.class, ProductSearchIndex.class, ProductSearchCache.class,
+        ProductQuantityBuffer.class, ProductStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each write commits on its own, like in production
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Create is a single INSERT with a generated id")
+    void createIsOneStatement() {
+        Product created = productService.createProduct(request(null, "Rog Ally X"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0L, created.getVersion());
+        assertEquals(13, created.getId().length());
+    }
+
+    @Test
+    @DisplayName("A duplicate name or id is reported by the unique indexes")
+    void duplicatesAreRejected() {
+        ProductSvcException byName = assertThrows(ProductSvcException.class,
+                () -> productService.createProduct(request(null, " steam DECK")));
+        ProductSvcException byId = assertThrows(ProductSvcException.class,
+                () -> productService.createProduct(request("083FFA7C04C24", "Rog Ally X")));
+
+        assertEquals(ERR_INVENTORY_MS_PRODUCT_EXIST, byName.getError());
+        assertEquals(ERR_INVENTORY_MS_PRODUCT_EXIST, byId.getError());
+        assertEquals("Steam Deck", productRepository.findById("083FFA7C04C24").orElseThrow().getItemName());
+    }
+
+    @Test
+    @DisplayName("Update is one SELECT and one UPDATE, renaming onto a taken name changes nothing")
+    void updateWithoutNameProbe() {
+        Product updated = productService.updateProduct("083FFA7C04C24", request(null, "Steam Deck OLED"), null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1L, updated.getVersion());
+
+        ProductSvcException error = assertThrows(ProductSvcException.class,
+                () -> productService.updateProduct("083FFA7C04C24", request(null, "Lenovo Legion Go"), null));
+
+        assertEquals(ERR_INVENTORY_MS_PRODUCT_EXIST, error.getError());
+        assertEquals("Steam Deck OLED", productRepository.findById("083FFA7C04C24").orElseThrow().getItemName());
+    }
+
+    private static ProductRequest request(String id, String name) {
+        return new ProductRequest(id, name, "Handheld PC", "Gadgets", BigDecimal.TEN, 3, "Pieces");
+    }
+}
@@ -0,0 +1,172 @@
+package com.java.inventory.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.CategoryStats;
+import com.java.inventory.system.dto.InventoryStats;
+import com.java.inventory.system.model.Product;
+import com.java.inventory.system.repository.ProductRepository;
+import com.java.inventory.system.util.ProductIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.java.inventory.system.constant.InventoryConstant.PRODUCT_STATS_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProductDatasetGenerator.class, ProductIdGenerator.class})
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the scan threads must see committed rows
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductStatsServiceTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDatasetGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private ProductStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = newStatsService();
+    }
+
+    @Test
+    @DisplayName("The parallel startup scan produces the same figures as a full recompute")
+    void parallelScanMatchesRecompute() {
+        generator.generate(ProductDatasetGenerator.Spec.builder()
+                .rows(3_000).threads(4).batchSize(500).seed(3L).skew(1.0).progressMs(1000).build());
+
+        InventoryStats computed = statsService.getStats();
+        statsService.rebuild();
+        InventoryStats incremental = statsService.getStats();
+
+        assertFalse(computed.incremental());
+        assertTrue(incremental.incremental());
+        assertEquals(3_000, incremental.total().count());
+        assertEquals(ProductDatasetGenerator.CATEGORIES.size(), incremental.categories().size());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT SUM(unit_price * quantity) FROM product", BigDecimal.class)
+                .compareTo(incremental.total().totalValue()));
+        assertEquals(computed.total().count(), incremental.total().count());
+        assertEquals(computed.total().totalQuantity(), incremental.total().totalQuantity());
+        assertEquals(true, statsService.reconcile().get("consistent"));
+    }
+
+    @Test
+    @Sql("/testData/product.sql")
+    @Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("Creates, updates and deletes move the totals and price range, unreported writes show up as drift")
+    void followsMutations() {
+        statsService.rebuild();
+        assertEquals(new CategoryStats("Gadgets", 2, 2, new BigDecimal("76000.00"),
+                new BigDecimal("38000.00"), new BigDecimal("38000.00")), category("gadgets"));
+
+        Product deck = productRepository.findById("083FFA7C04C24").orElseThrow();
+        deck.setUnitPrice(new BigDecimal("1000.00"));
+        deck.setQuantity(4);
+        statsService.update(productRepository.saveAndFlush(deck));
+        statsService.update(productRepository.saveAndFlush(Product.builder()
+                .id("NEW1").itemName("Green Tea").description("Tea").category("Grocery")
+                .unitPrice(new BigDecimal("2.50")).quantity(10).unit("Box").build()));
+
+        CategoryStats gadgets = category("gadgets");
+        assertEquals(5, gadgets.totalQuantity());
+        assertEquals(0, new BigDecimal("42000").compareTo(gadgets.totalValue()));
+        assertEquals(0, new BigDecimal("1000").compareTo(gadgets.minPrice()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> productRepository.softDeleteByIds(List.of("083FFA7C04C24"), LocalDateTime.now()));
+        statsService.remove("083FFA7C04C24");
+        // an after-commit carrying an older version than the one applied is ignored
+        statsService.update(productRepository.findById("NEW1").orElseThrow().toBuilder().version(-1L).quantity(99).build());
+
+        assertEquals(0, new BigDecimal("38000").compareTo(category("gadgets").minPrice()));
+        assertEquals(1, category("gadgets").count());
+        assertEquals(10, category("grocery").totalQuantity());
+        assertEquals(true, statsService.reconcile().get("consistent"));
+
+        jdbcTemplate.update("UPDATE product SET quantity = 7 WHERE id = 'NEW1'");
+        Map<String, Object> report = statsService.reconcile();
+
+        assertEquals(false, report.get("consistent"));
+        assertEquals(1, ((List<?>) report.get("mismatches")).size());
+    }
+
+    @Test
+    @Sql("/testData/product.sql")
+    @Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("Writes reported on one instance move the figures of the others")
+    void replicatesOverPubSub() {
+        ProductStatsService other = newStatsService();
+        statsService.rebuild();
+        other.rebuild();
+
+        Product deck = productRepository.findById("083FFA7C04C24").orElseThrow();
+        deck.setQuantity(9);
+        statsService.update(productRepository.saveAndFlush(deck));
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> productRepository.softDeleteByIds(List.of("FDS125G67J2SW"), LocalDateTime.now()));
+        statsService.remove("FDS125G67J2SW");
+
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(PRODUCT_STATS_CHANNEL), payloads.capture());
+        for (String payload : payloads.getAllValues()) {
+            other.onMessage(new DefaultMessage(PRODUCT_STATS_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    payload.getBytes(StandardCharsets.UTF_8)), null);
+        }
+
+        assertEquals(statsService.getStats(), other.getStats());
+        assertEquals(true, other.reconcile().get("consistent"));
+    }
+
+    private ProductStatsService newStatsService() {
+        return new ProductStatsService(productRepository, transactionManager, true, 4, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new ObjectMapper());
+    }
+
+    private CategoryStats category(String key) {
+        return statsService.getStats().categories().stream()
+                .filter(c -> Product.key(c.category()).equals(key))
+                .findFirst()
+                .orElseThrow();
+    }
+}
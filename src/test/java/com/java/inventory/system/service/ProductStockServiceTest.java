@@ -0,0 +1,115 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.InventorySystemApplication;
+import com.java.inventory.system.dto.PickListRequest;
+import com.java.inventory.system.exception.ProductSvcException;
+import com.java.inventory.system.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.java.inventory.system.exception.errortypes.NVentSvcErrorType.ERR_INVENTORY_MS_INSUFFICIENT_STOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Sql("/testData/product.sql")
+@Sql(statements = "UPDATE product SET quantity = 500 WHERE id = '083FFA7C04C24'")
+@ActiveProfiles("test")
+@Import(ProductStockService.class)
+@MockitoBean(types = {InventorySystemApplication.BotInitializer.class, CacheManager.class,
+        ProductCacheService.class, ProductSearchIndex.class, ProductSearchCache.class,
+        ProductQuantityBuffer.class, ProductStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every adjustment commits on its own, like in production
+@Sql(scripts = "/testData/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductStockServiceTest {
+
+    private static final String HOT_PRODUCT = "083FFA7C04C24";
+
+    @Autowired
+    private ProductStockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Concurrent picks on one product never lose an update nor oversell")
+    void concurrentPicksOnHotProduct() throws Exception {
+        int threads = 32;
+        int picksPerThread = 25; // 800 picks of 1 against 500 in stock
+        AtomicInteger picked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < picksPerThread; i++) {
+                    try {
+                        stockService.adjustStock(HOT_PRODUCT, -1);
+                        picked.incrementAndGet();
+                    } catch (ProductSvcException e) {
+                        assertEquals(ERR_INVENTORY_MS_INSUFFICIENT_STOCK, e.getError());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(500, picked.get());
+        assertEquals(300, rejected.get());
+        assertEquals(0, productRepository.findById(HOT_PRODUCT).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("A pick list is all or nothing")
+    void pickListRollsBackOnShortage() {
+        PickListRequest request = new PickListRequest(List.of(
+                new PickListRequest.Item(HOT_PRODUCT, -10),
+                new PickListRequest.Item("167794255273984", -2)));
+
+        ProductSvcException error = assertThrows(ProductSvcException.class, () -> stockService.adjustStock(request));
+
+        assertEquals("167794255273984", error.getFieldName());
+        assertEquals(500, productRepository.findById(HOT_PRODUCT).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Repeated lines in a pick list are merged")
+    void pickListMergesLines() {
+        PickListRequest request = new PickListRequest(List.of(
+                new PickListRequest.Item(HOT_PRODUCT, -10),
+                new PickListRequest.Item(HOT_PRODUCT, 4),
+                new PickListRequest.Item("167794255273984", 9)));
+
+        stockService.adjustStock(request);
+
+        assertEquals(494, productRepository.findById(HOT_PRODUCT).orElseThrow().getQuantity());
+        assertEquals(10, productRepository.findById("167794255273984").orElseThrow().getQuantity());
+    }
+}
@@ -0,0 +1,105 @@
+package com.java.inventory.system.service;
+
+import com.java.inventory.system.model.AuthenticatedUser;
+import com.java.inventory.system.model.User;
+import com.java.inventory.system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static com.java.inventory.system.constant.InventoryConstant.USER_INVALIDATION_CHANNEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final User alice = User.builder().id(1L).username("alice").password("{hash}").email("alice@example.com")
+            .mobile("+639000000000").roles("ROLE_USER").build();
+
+    private UserCacheService userCacheService;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> Optional.of(alice.toBuilder().build()));
+        userCacheService = new UserCacheService(userRepository, redisTemplate,
+                mock(RedisMessageListenerContainer.class), 100, 60);
+        userDetailsService = new CustomUserDetailsService(userRepository, userCacheService);
+    }
+
+    @Test
+    @DisplayName("Authentication and Telegram lookups of one flow share a single user query")
+    void oneQueryPerFlow() {
+        AuthenticatedUser principal = (AuthenticatedUser) userDetailsService.loadUserByUsername("alice");
+        assertNull(userDetailsService.getTelegramChatId("alice"));
+        userDetailsService.loadUserByUsername("alice");
+
+        assertEquals("alice@example.com", principal.getEmail());
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("Changing a copy leaves the cache alone, saving and evicting makes the change visible everywhere")
+    void evictedOnUpdate() {
+        userCacheService.findByUsername("alice").orElseThrow().setRoles("ROLE_ADMIN");
+        assertEquals("ROLE_USER", userCacheService.findByUsername("alice").orElseThrow().getRoles());
+
+        alice.setTelegramChatId("42");
+        userDetailsService.updateTelegramChatId("alice", "42");
+
+        assertEquals("42", userDetailsService.getTelegramChatId("alice"));
+        verify(redisTemplate).convertAndSend(USER_INVALIDATION_CHANNEL, "alice");
+
+        // another instance changed the user
+        alice.setTelegramChatId("43");
+        userCacheService.onMessage(new DefaultMessage(USER_INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "alice".getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals("43", userDetailsService.getTelegramChatId("alice"));
+        verify(userRepository, times(4)).findByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("A row loaded before a concurrent eviction is returned but not cached")
+    void noStaleFill() {
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            User loaded = alice.toBuilder().build();
+            // another instance saves the user and broadcasts while this load is in flight
+            alice.setTelegramChatId("42");
+            userCacheService.onMessage(new DefaultMessage(USER_INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    "alice".getBytes(StandardCharsets.UTF_8)), null);
+            return Optional.of(loaded);
+        });
+        assertNull(userCacheService.findByUsername("alice").orElseThrow().getTelegramChatId());
+
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> Optional.of(alice.toBuilder().build()));
+        assertEquals("42", userCacheService.findByUsername("alice").orElseThrow().getTelegramChatId());
+    }
+
+    @Test
+    @DisplayName("A write loads the row from the database so a stale cached copy is never saved back")
+    void writesSkipTheCache() {
+        userCacheService.findByUsername("alice");
+        // changed by another instance, this one has not heard about it yet
+        alice.setPassword("{rehashed}");
+
+        userDetailsService.updateTelegramChatId("alice", "42");
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertEquals("{rehashed}", saved.getValue().getPassword());
+        assertEquals("42", saved.getValue().getTelegramChatId());
+    }
+}
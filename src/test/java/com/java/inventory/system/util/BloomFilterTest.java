@@ -0,0 +1,32 @@
+package com.java.inventory.system.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Every value put is found, unseen values match at about the configured rate")
+    void noFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("t:" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("t:" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("t:" + UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        // 0.1% of 100k is 100
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
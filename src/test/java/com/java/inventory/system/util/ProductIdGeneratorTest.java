@@ -0,0 +1,141 @@
+package com.java.inventory.system.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductIdGeneratorTest {
+
+    @Test
+    @DisplayName("Ids are unique across threads and increasing within each thread")
+    void concurrentIdsAreUniqueAndOrdered() throws Exception {
+        ProductIdGenerator generator = new ProductIdGenerator(7);
+        int threads = 16;
+        int idsPerThread = 20_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                String previous = "";
+                for (int i = 0; i < idsPerThread; i++) {
+                    String id = generator.generateId();
+                    assertTrue(id.compareTo(previous) > 0, id + " after " + previous);
+                    ids.add(id);
+                    previous = id;
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+
+    @Test
+    @DisplayName("A clock that goes backwards or a full sequence does not break ordering")
+    void monotonicWithoutClockProgress() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        ProductIdGenerator generator = new ProductIdGenerator(3, clock);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) { // more than the 4096 sequence values of one millisecond
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        clock.instant = clock.instant.minusSeconds(5);
+        long afterRewind = generator.nextId();
+
+        assertTrue(afterRewind > previous);
+        assertTrue(ProductIdGenerator.encode(afterRewind).compareTo(ProductIdGenerator.encode(previous)) > 0);
+    }
+
+    @Test
+    @DisplayName("Ids keep the 13 character width of the old ids and carry their creation time")
+    void encodingKeepsWidthAndTime() {
+        Instant now = Instant.parse("2026-10-18T12:00:00Z");
+        ProductIdGenerator generator = new ProductIdGenerator(ProductIdGenerator.MAX_NODE_ID, new MutableClock(now));
+
+        long id = generator.nextId();
+
+        assertEquals(13, ProductIdGenerator.encode(id).length());
+        assertEquals("0000000000000", ProductIdGenerator.encode(0));
+        assertEquals(now, ProductIdGenerator.timestampOf(id));
+        assertThrows(IllegalArgumentException.class, () -> new ProductIdGenerator(ProductIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    @DisplayName("Without a configured node id only the test profile starts, derived ids may collide elsewhere")
+    void nodeIdRequiredOutsideTest() {
+        MockEnvironment test = new MockEnvironment();
+        test.setActiveProfiles("test");
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+
+        new ProductIdGenerator(-1, test);
+        new ProductIdGenerator(5, dev);
+        assertThrows(IllegalStateException.class, () -> new ProductIdGenerator(-1, dev));
+    }
+
+    @Test
+    @DisplayName("A clock stepped back before the first id still gives ids after the start time")
+    void seededFromStartTime() {
+        Instant start = Instant.parse("2026-10-18T12:00:00Z");
+        MutableClock clock = new MutableClock(start);
+        ProductIdGenerator generator = new ProductIdGenerator(3, clock);
+
+        clock.instant = start.minusSeconds(60);
+
+        assertEquals(start, ProductIdGenerator.timestampOf(generator.nextId()));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
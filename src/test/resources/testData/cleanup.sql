@@ -0,0 +1,2 @@
+DELETE FROM product;
+DELETE FROM product_archive;
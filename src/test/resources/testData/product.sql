@@ -1,5 +1,5 @@
-INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit)
-VALUES ('167794255273984','Lenovo Legion Go', 'Handheld PC', 'Gadgets', 38000.00, 1, 'Pieces');
+INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit, item_name_key, category_key)
+VALUES ('167794255273984','Lenovo Legion Go', 'Handheld PC', 'Gadgets', 38000.00, 1, 'Pieces', 'lenovo legion go', 'gadgets');
 
-INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit)
-VALUES ('083FFA7C04C24','Steam Deck', 'Steam Handheld', 'Gadgets', 38000.00, 1, 'Pieces');
\ No newline at end of file
+INSERT INTO product (id, item_name, description, category, unit_price, quantity, unit, item_name_key, category_key)
+VALUES ('083FFA7C04C24','Steam Deck', 'Steam Handheld', 'Gadgets', 38000.00, 1, 'Pieces', 'steam deck', 'gadgets');